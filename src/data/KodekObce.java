@@ -0,0 +1,38 @@
+package data;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import rozhrani.IKodek;
+
+/**
+ * Třída KodekObce převádí obec do binární podoby a zpět, aby ji bylo možné
+ * uložit do pomocného souboru (např. v externí prioritní frontě). Čísla se
+ * zapisují jako int, názvy v kódování modified UTF-8.
+ */
+
+public class KodekObce implements IKodek<Obec> {
+
+    @Override
+    public void zapis(Obec obec, DataOutput vystup) throws IOException {
+        vystup.writeInt(obec.getCisloKraje());
+        vystup.writeUTF(obec.getNazevKraje());
+        vystup.writeInt(obec.getPSC());
+        vystup.writeUTF(obec.getObec());
+        vystup.writeInt(obec.getPocetMuzu());
+        vystup.writeInt(obec.getPocetZen());
+        vystup.writeInt(obec.getPocetOsob());
+    }
+
+    @Override
+    public Obec cti(DataInput vstup) throws IOException {
+        int cisloKraje = vstup.readInt();
+        String nazevKraje = vstup.readUTF();
+        int PSC = vstup.readInt();
+        String obec = vstup.readUTF();
+        int pocetMuzu = vstup.readInt();
+        int pocetZen = vstup.readInt();
+        int pocetOsob = vstup.readInt();
+        return new Obec(cisloKraje, nazevKraje, PSC, obec, pocetMuzu, pocetZen, pocetOsob);
+    }
+}
@@ -0,0 +1,19 @@
+package enumy;
+
+/**
+ * Výčtový typ eRezimReorganizace určuje, kdy halda po změně komparátoru
+ * obnoví své uspořádání:
+ * - OKAMZITA: celá halda se uspořádá hned při reorganizaci.
+ * - LINA: halda se jen označí jako neuspořádaná a uspořádá se celá až při
+ *   dalším přístupu k ní.
+ * - POSTUPNA: halda se uspořádává po částech voláním kroků reorganizace
+ *   (např. v každém snímku UI), dokud se neuspořádá celá.
+ */
+
+public enum eRezimReorganizace {
+
+    OKAMZITA,
+    LINA,
+    POSTUPNA
+
+}
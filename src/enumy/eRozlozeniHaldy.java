@@ -0,0 +1,19 @@
+package enumy;
+
+/**
+ * Výčtový typ eRozlozeniHaldy určuje, jak jsou uzly haldy uloženy v poli:
+ * - PO_UROVNICH: uzly jsou v poli po úrovních stromu (potomci uzlu i leží
+ *   na indexech d * i + 1 až d * i + d), každá úroveň velké haldy tak leží
+ *   v jiné části paměti.
+ * - PO_BLOCICH: pole je rozděleno na bloky, z nichž každý obsahuje úplný
+ *   podstrom o nejvýše 1024 uzlech (B-heap). Procházení haldou zůstává
+ *   několik úrovní v jednom bloku paměti a mezi bloky přechází jen jednou
+ *   za tyto úrovně.
+ */
+
+public enum eRozlozeniHaldy {
+
+    PO_UROVNICH,
+    PO_BLOCICH
+
+}
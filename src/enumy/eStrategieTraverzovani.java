@@ -0,0 +1,19 @@
+package enumy;
+
+/**
+ * Výčtový typ eStrategieTraverzovani určuje, jakým způsobem halda obnovuje
+ * své uspořádání při procházení nahoru a dolů:
+ * - PROHAZOVANI: prvek se v každé úrovni prohodí s rodičem nebo potomkem.
+ * - DIRA: prvek se drží mimo pole a ostatní prvky se posouvají do „díry“.
+ * - ZDOLA_NAHORU: při procházení dolů se nejprve sestoupí po cestě větších
+ *   potomků až k listu a teprve potom se hledá místo pro prvek směrem
+ *   nahoru, což přibližně polovičí počet porovnání (Wegener).
+ */
+
+public enum eStrategieTraverzovani {
+    
+    PROHAZOVANI,
+    DIRA,
+    ZDOLA_NAHORU
+    
+}
@@ -1,14 +1,16 @@
 package enumy;
 
 /**
- * Výčtový typ eTypProhl reprezentuje dva základní typy průchodů grafem:
+ * Výčtový typ eTypProhl reprezentuje typy průchodů grafem:
  * - HLOUBKA: průchod do hloubky (DFS - Depth First Search).
  * - SIRKA: průchod do šířky (BFS - Breadth First Search).
+ * - PRIORITA: průchod prioritní frontou od prvku s nejvyšší prioritou.
  */
 
 public enum eTypProhl {
     
     HLOUBKA,
-    SIRKA
+    SIRKA,
+    PRIORITA
     
 }
@@ -2,6 +2,7 @@ package gui;
 
 import obsluha.AgendaKraj;
 import data.Obec;
+import enumy.eRezimReorganizace;
 import enumy.eTypProhl;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -12,6 +13,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.ResourceBundle;
 import java.util.Scanner;
+import javafx.animation.AnimationTimer;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
@@ -82,6 +84,18 @@ public class FXMLController implements Initializable {
     private eTypProhl prohlidka = eTypProhl.HLOUBKA; // Výchozí typ prohledávání (hloubka nebo šířka)
 
     private AbstrHeap<Obec> prioritniFronta = new AbstrHeap<>();
+    private static final int KROKU_REORGANIZACE_NA_SNIMEK = 4096; // Počet kroků reorganizace v jednom snímku UI
+
+    // Časovač, který v každém snímku UI provede část postupné reorganizace
+    private final AnimationTimer casovacReorganizace = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (prioritniFronta.krokReorganizace(KROKU_REORGANIZACE_NA_SNIMEK)) {
+                stop();
+                aktualizovatListView();
+            }
+        }
+    };
     @FXML
     private ComboBox<String> cb_comparator; // ComboBox pro výběr komparátoru pro řazení
 
@@ -152,7 +166,8 @@ public class FXMLController implements Initializable {
 
     /**
     * Uloží seznam obcí do textového souboru.
-    * Obce jsou seřazeny v prioritní frontě a následně zapsány do souboru.
+    * Obce jsou do souboru zapsány v pořadí podle priority, prioritní fronta
+    * přitom zůstává nezměněná.
     *
     * @param event Akce tlačítka pro uložení do souboru.
     */
@@ -160,16 +175,13 @@ public class FXMLController implements Initializable {
 private void ulozDoSouboru(ActionEvent event) {
     int pocetZaznamu = 0;
 
-    Obec[] serazeneObce = new Obec[prioritniFronta.getVelikost()];
-
-    for (int i = 0; i < serazeneObce.length; i++) {
-        serazeneObce[i] = prioritniFronta.odeberMax();
-    }
+    Iterator<Obec> serazeneObce = prioritniFronta.vypis(eTypProhl.PRIORITA);
 
     try {
         FileWriter fw = new FileWriter("obce.txt");
 
-        for (Obec obec : serazeneObce) {
+        while (serazeneObce.hasNext()) {
+            Obec obec = serazeneObce.next();
             fw.write(obec.getCisloKraje() + ";");
             fw.write(obec.getNazevKraje() + ";");
             fw.write(obec.getPSC() + ";");
@@ -448,20 +460,17 @@ private void ulozDoSouboru(ActionEvent event) {
     */
     @FXML
     private void generujObce(ActionEvent event) {
-        int pocetVygenerovanychObci = 0;
-
-        while (pocetVygenerovanychObci < spn_pocetGenerovani.getValue()) {
-            Obec novaObec = agenda.generuj();
+        Obec[] noveObce = new Obec[spn_pocetGenerovani.getValue()];
 
-            if (prioritniFronta.getVelikost() == 0) {
-                Obec[] obce = new Obec[1];
-                obce[0] = novaObec;
-                prioritniFronta.vybuduj(obce, Comparator.comparingInt(Obec::getPocetOsob));
-            } else {
-                prioritniFronta.vloz(novaObec);
-            }
+        for (int i = 0; i < noveObce.length; i++) {
+            noveObce[i] = agenda.generuj();
+        }
 
-            pocetVygenerovanychObci++;
+        // Celá dávka se vloží najednou, halda se obnoví jedním průchodem.
+        if (prioritniFronta.getVelikost() == 0) {
+            prioritniFronta.vybuduj(noveObce, Comparator.comparingInt(Obec::getPocetOsob));
+        } else {
+            prioritniFronta.vlozVse(noveObce);
         }
 
         aktualizovatListView();
@@ -535,18 +544,22 @@ private void ulozDoSouboru(ActionEvent event) {
     }
 
     /**
-    * Reorganizuje prioritní frontu na základě vybraného kritéria a aktualizuje zobrazení.
+    * Reorganizuje prioritní frontu na základě vybraného kritéria. Reorganizace
+    * probíhá postupně po snímcích UI, aby velká fronta nezablokovala okno,
+    * zobrazení se aktualizuje po jejím dokončení. Zpřístupnění maxima je
+    * mezitím k dispozici, jen první zpřístupnění po zahájení reorganizace
+    * jednou projde celou frontu.
     * 
     * @param event Akce, která tuto metodu vyvolala.
     */
     @FXML
     private void reorganizuj(ActionEvent event) {
         if (cb_comparator.getSelectionModel().getSelectedItem().equals("POČET OSOB")) {
-            prioritniFronta.reorganizace(Comparator.comparingInt(Obec::getPocetOsob));
+            prioritniFronta.reorganizace(Comparator.comparingInt(Obec::getPocetOsob), eRezimReorganizace.POSTUPNA);
         } else {
-            prioritniFronta.reorganizace(Comparator.comparing(Obec::getObec).reversed());
+            prioritniFronta.reorganizace(Comparator.comparing(Obec::getObec).reversed(), eRezimReorganizace.POSTUPNA);
         }
 
-        aktualizovatListView();
+        casovacReorganizace.start();
     }
 }
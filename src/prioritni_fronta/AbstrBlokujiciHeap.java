@@ -0,0 +1,264 @@
+package prioritni_fronta;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import rozhrani.IAbstrHeap;
+
+/**
+* Blokující prioritní fronta s omezenou kapacitou pro předávání prvků mezi
+* vlákny (např. vlákna importu a vlákna zpracování). Vkládající vlákno při
+* plné frontě čeká, až odebírající vlákna uvolní místo, fronta tak neroste
+* bez omezení, když zpracování nestíhá. Odebírající vlákno při prázdné frontě
+* čeká na nový prvek.
+*
+* <p>Všechny operace chrání jeden zámek. Dávkové odebrání odebere více prvků
+* během jediného uzamčení, což šetří režii zámku na prvek.
+*
+* @param <T> Typ prvků ve frontě
+*/
+public class AbstrBlokujiciHeap<T> implements IAbstrHeap<T> {
+
+    private final AbstrHeap<T> halda;
+    private final int kapacita;
+    private final ReentrantLock zamek = new ReentrantLock();
+    private final Condition neniPrazdna = zamek.newCondition();
+    private final Condition neniPlna = zamek.newCondition();
+
+    /**
+    * Vytvoří prázdnou frontu s danou kapacitou.
+    *
+    * @param komparator Komparátor pro porovnávání prvků
+    * @param kapacita Nejvyšší počet prvků ve frontě
+    * @throws IllegalArgumentException pokud kapacita není kladná
+    */
+    public AbstrBlokujiciHeap(Comparator<T> komparator, int kapacita) {
+        if (kapacita <= 0) {
+            throw new IllegalArgumentException("Kapacita fronty musí být kladná!");
+        }
+        this.halda = new AbstrHeap<>(komparator);
+        this.kapacita = kapacita;
+    }
+
+    public int getKapacita() {
+        return kapacita;
+    }
+
+    @Override
+    public int getVelikost() {
+        zamek.lock();
+        try {
+            return halda.getVelikost();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    @Override
+    public boolean jePrazdny() {
+        return getVelikost() == 0;
+    }
+
+    /**
+    * Vyprázdní frontu a probudí všechna vlákna čekající na volné místo.
+    */
+    @Override
+    public void zrus() {
+        zamek.lock();
+        try {
+            halda.zrus();
+            neniPlna.signalAll();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Vloží prvek bez čekání.
+    *
+    * @param prvek Prvek, který má být vložen
+    * @throws IllegalStateException pokud je fronta plná
+    */
+    @Override
+    public void vloz(T prvek) {
+        zamek.lock();
+        try {
+            if (halda.getVelikost() == kapacita) {
+                throw new IllegalStateException("Fronta je plná!");
+            }
+            vlozAOznam(prvek);
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Vloží prvek. Pokud je fronta plná, čeká, dokud se v ní neuvolní místo.
+    *
+    * @param prvek Prvek, který má být vložen
+    * @throws InterruptedException pokud bylo vlákno během čekání přerušeno
+    */
+    public void vlozBlokujici(T prvek) throws InterruptedException {
+        zamek.lockInterruptibly();
+        try {
+            while (halda.getVelikost() == kapacita) {
+                neniPlna.await();
+            }
+            vlozAOznam(prvek);
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Vloží prvek. Pokud je fronta plná, čeká na uvolnění místa nejvýše
+    * zadanou dobu.
+    *
+    * @param prvek Prvek, který má být vložen
+    * @param cekani Nejdelší doba čekání
+    * @param jednotka Časová jednotka doby čekání
+    * @return True, pokud byl prvek vložen, false, pokud doba čekání uplynula
+    * @throws InterruptedException pokud bylo vlákno během čekání přerušeno
+    */
+    public boolean vlozBlokujici(T prvek, long cekani, TimeUnit jednotka) throws InterruptedException {
+        long zbyva = jednotka.toNanos(cekani);
+
+        zamek.lockInterruptibly();
+        try {
+            while (halda.getVelikost() == kapacita) {
+                if (zbyva <= 0) {
+                    return false;
+                }
+                zbyva = neniPlna.awaitNanos(zbyva);
+            }
+            vlozAOznam(prvek);
+            return true;
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou bez čekání.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T odeberMax() {
+        zamek.lock();
+        try {
+            return halda.jePrazdny() ? null : odeberAOznam();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou. Pokud je fronta prázdná, čeká,
+    * dokud do ní nějaký prvek nepřibude.
+    *
+    * @return Prvek s nejvyšší prioritou
+    * @throws InterruptedException pokud bylo vlákno během čekání přerušeno
+    */
+    public T odeberMaxBlokujici() throws InterruptedException {
+        zamek.lockInterruptibly();
+        try {
+            while (halda.jePrazdny()) {
+                neniPrazdna.await();
+            }
+            return odeberAOznam();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou. Pokud je fronta prázdná, čeká na
+    * nový prvek nejvýše zadanou dobu.
+    *
+    * @param cekani Nejdelší doba čekání
+    * @param jednotka Časová jednotka doby čekání
+    * @return Prvek s nejvyšší prioritou nebo null, pokud doba čekání uplynula
+    * @throws InterruptedException pokud bylo vlákno během čekání přerušeno
+    */
+    public T odeberMaxBlokujici(long cekani, TimeUnit jednotka) throws InterruptedException {
+        long zbyva = jednotka.toNanos(cekani);
+
+        zamek.lockInterruptibly();
+        try {
+            while (halda.jePrazdny()) {
+                if (zbyva <= 0) {
+                    return null;
+                }
+                zbyva = neniPrazdna.awaitNanos(zbyva);
+            }
+            return odeberAOznam();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Odebere nejvýše n prvků s nejvyšší prioritou během jediného uzamčení
+    * a vloží je do kolekce v pořadí podle priority. Nečeká, pokud je fronta
+    * prázdná.
+    *
+    * @param n Nejvyšší počet odebíraných prvků
+    * @param cil Kolekce, do které se odebrané prvky vloží
+    * @return Počet odebraných prvků
+    */
+    public int odeberMaxDavku(int n, Collection<? super T> cil) {
+        zamek.lock();
+        try {
+            int pocet = 0;
+            while (pocet < n && !halda.jePrazdny()) {
+                cil.add(halda.odeberMax());
+                pocet++;
+            }
+
+            if (pocet == 1) {
+                neniPlna.signal();
+            } else if (pocet > 1) {
+                neniPlna.signalAll();
+            }
+            return pocet;
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Zpřístupní prvek s nejvyšší prioritou.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T zpristupniMax() {
+        zamek.lock();
+        try {
+            return halda.zpristupniMax();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Vloží prvek a probudí jedno vlákno čekající na prvek. Volající drží zámek.
+    */
+    private void vlozAOznam(T prvek) {
+        halda.vloz(prvek);
+        neniPrazdna.signal();
+    }
+
+    /**
+    * Odebere maximum a probudí jedno vlákno čekající na volné místo.
+    * Volající drží zámek a fronta nesmí být prázdná.
+    */
+    private T odeberAOznam() {
+        T prvek = halda.odeberMax();
+        neniPlna.signal();
+        return prvek;
+    }
+}
@@ -0,0 +1,512 @@
+package prioritni_fronta;
+
+import enumy.eTypProhl;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import rozhrani.IAbstrHeap;
+import rozhrani.IKodek;
+
+/**
+* Externí prioritní fronta pro data, která se nevejdou do paměti. Nové prvky
+* se vkládají do haldy v paměti. Jakmile halda dosáhne paměťového limitu,
+* vyprázdní se do dočasného souboru jako seřazený běh (od nejvyšší priority)
+* a začne se plnit znovu. Soubory se zapisují i čtou sekvenčně přes buffer.
+*
+* <p>Odebrání maxima porovná vrchol haldy v paměti s vítězem stromu poražených
+* (loser tree) nad aktuálními prvky všech běhů. Po odebrání prvku z běhu se
+* z běhu načte další prvek a strom se přehraje jen po cestě od jeho listu ke
+* kořeni, tedy v čase O(log k) pro k běhů. Strom se znovu sestaví pokaždé,
+* když přibude nový běh.
+*
+* <p>Běhy se slévají po úrovních: běh vysypaný z paměti má úroveň 0, a jakmile
+* je na některé úrovni {@link #FAKTOR_SLEVANI} běhů, slijí se jen tyto běhy do
+* jednoho běhu o úroveň vyšší. Slévají se tak vždy běhy podobné velikosti
+* a každý prvek se na disk přepíše nejvýše tolikrát, kolik je úrovní, tedy
+* O(log n) krát místo opakovaného přepisování všech dat.
+*
+* <p>Prvky se do souborů převádějí kodekem. Velikost fronty je omezena jen
+* místem na disku, proto ji vrací také jako long.
+*
+* <p>Pokud se nepodaří zapsat běh vysypávaný z paměti, prvky zůstanou v paměti
+* a fronta je dál použitelná. Pokud se ale nepodaří přečíst nebo slít běh,
+* jsou běhy na disku rozečtené a fronta se označí jako poškozená. Poškozenou
+* frontu lze už jen vyprázdnit metodou zrus nebo close, ostatní operace
+* vyhodí IllegalStateException.
+*
+* @param <T> Typ prvků ve frontě
+*/
+public class AbstrExterniHeap<T> implements IAbstrHeap<T>, AutoCloseable {
+
+    private static final int VELIKOST_BUFFERU = 1 << 16; // Buffer pro čtení a zápis jednoho běhu
+    private static final int FAKTOR_SLEVANI = 16; // Počet běhů jedné úrovně, které se slijí do běhu vyšší úrovně
+
+    private final AbstrHeap<T> pamet; // Halda prvků, které se zatím vejdou do paměti
+    private final Comparator<T> komparator;
+    private final IKodek<T> kodek;
+    private final int kapacitaPameti;
+    private final Path adresar; // Adresář pro dočasné soubory, null = výchozí dočasný adresář
+
+    @SuppressWarnings("unchecked")
+    private Beh<T>[] behy = new Beh[4];
+    private int pocetBehu;
+    private int[] strom = new int[1]; // Strom poražených, strom[0] je index vítězného běhu
+    private long velikost;
+    private boolean poskozena; // Běhy na disku jsou po chybě čtení rozečtené
+
+    /**
+    * Seřazený běh uložený v dočasném souboru. Drží v paměti jen buffer
+    * a aktuální (největší dosud neodebraný) prvek.
+    */
+    private static final class Beh<T> {
+
+        private final Path soubor;
+        private final IKodek<T> kodek;
+        private final DataInputStream vstup;
+        private final int uroven; // Počet slití, kterými běh vznikl
+        private long zbyva; // Počet prvků, které ještě nebyly načteny ze souboru
+        private T aktualni; // Aktuální prvek běhu, null pro vyčerpaný běh
+
+        Beh(Path soubor, IKodek<T> kodek, int uroven) throws IOException {
+            this.soubor = soubor;
+            this.kodek = kodek;
+            this.uroven = uroven;
+            this.vstup = new DataInputStream(new BufferedInputStream(Files.newInputStream(soubor), VELIKOST_BUFFERU));
+            try {
+                this.zbyva = vstup.readLong();
+                posun();
+            } catch (IOException e) {
+                vstup.close();
+                throw e;
+            }
+        }
+
+        /**
+        * Načte další prvek běhu. Vyčerpaný běh uzavře a smaže jeho soubor.
+        * Pokud se to nepodaří, aktuální prvek zůstane nezměněn, vstup však
+        * může být rozečtený uprostřed prvku a běh už nelze dále číst.
+        */
+        void posun() throws IOException {
+            if (zbyva == 0) {
+                zavri();
+                aktualni = null;
+                return;
+            }
+            aktualni = kodek.cti(vstup);
+            zbyva--;
+        }
+
+        void zavri() throws IOException {
+            vstup.close();
+            Files.deleteIfExists(soubor);
+        }
+    }
+
+    public AbstrExterniHeap(Comparator<T> komparator, IKodek<T> kodek, int kapacitaPameti) {
+        this(komparator, kodek, kapacitaPameti, null);
+    }
+
+    /**
+    * Vytvoří prázdnou externí frontu.
+    *
+    * @param komparator Komparátor pro porovnávání prvků
+    * @param kodek Kodek pro zápis prvků do dočasných souborů a jejich čtení
+    * @param kapacitaPameti Nejvyšší počet prvků držených v paměti
+    * @param adresar Adresář pro dočasné soubory, nebo null pro výchozí
+    * @throws IllegalArgumentException pokud kapacita paměti není kladná
+    */
+    public AbstrExterniHeap(Comparator<T> komparator, IKodek<T> kodek, int kapacitaPameti, Path adresar) {
+        if (kapacitaPameti <= 0) {
+            throw new IllegalArgumentException("Kapacita paměti musí být kladná!");
+        }
+        this.komparator = komparator;
+        this.kodek = kodek;
+        this.kapacitaPameti = kapacitaPameti;
+        this.adresar = adresar;
+        this.pamet = new AbstrHeap<>(komparator);
+    }
+
+    /**
+    * Vrátí počet prvků ve frontě, nejvýše však Integer.MAX_VALUE.
+    *
+    * @return Počet prvků
+    */
+    @Override
+    public int getVelikost() {
+        return (int) Math.min(velikost, Integer.MAX_VALUE);
+    }
+
+    /**
+    * Vrátí skutečný počet prvků ve frontě včetně prvků uložených na disku.
+    *
+    * @return Počet prvků
+    */
+    public long getPocet() {
+        return velikost;
+    }
+
+    public int getPocetBehu() {
+        return pocetBehu;
+    }
+
+    @Override
+    public boolean jePrazdny() {
+        return velikost == 0;
+    }
+
+    /**
+    * Vyprázdní frontu a smaže všechny dočasné soubory. Lze volat i na
+    * poškozenou frontu, která je potom opět použitelná.
+    */
+    @Override
+    public void zrus() {
+        pamet.zrus();
+        velikost = 0;
+        poskozena = false;
+
+        IOException chyba = null;
+        for (int i = 0; i < pocetBehu; i++) {
+            try {
+                behy[i].zavri();
+            } catch (IOException e) {
+                chyba = e;
+            }
+            behy[i] = null;
+        }
+        pocetBehu = 0;
+
+        if (chyba != null) {
+            throw new UncheckedIOException("Dočasný soubor fronty nelze smazat.", chyba);
+        }
+    }
+
+    /**
+    * Vloží prvek do haldy v paměti. Při dosažení paměťového limitu se halda
+    * uloží na disk jako nový seřazený běh.
+    *
+    * @param prvek Prvek, který má být vložen
+    * @throws UncheckedIOException pokud běh nelze zapsat na disk, prvky pak
+    * zůstanou v paměti, nebo pokud se nepodaří slít běhy, fronta je pak
+    * poškozená
+    * @throws IllegalStateException pokud je fronta poškozená
+    */
+    @Override
+    public void vloz(T prvek) {
+        overStav();
+        pamet.vloz(prvek);
+        velikost++;
+
+        if (pamet.getVelikost() >= kapacitaPameti) {
+            try {
+                vysypPamet();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Běh fronty nelze zapsat na disk.", e);
+            }
+        }
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou, ať už je v paměti, nebo v některém
+    * z běhů na disku.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    * @throws UncheckedIOException pokud další prvek běhu nelze přečíst
+    * z disku, odebíraný prvek se pak nevrátí a fronta je poškozená
+    * @throws IllegalStateException pokud je fronta poškozená
+    */
+    @Override
+    public T odeberMax() {
+        overStav();
+        if (velikost == 0) {
+            return null;
+        }
+
+        if (!vitezJeBeh()) {
+            velikost--;
+            return pamet.odeberMax();
+        }
+
+        int vitez = strom[0];
+        T prvek = behy[vitez].aktualni;
+        try {
+            behy[vitez].posun();
+        } catch (IOException e) {
+            poskozena = true;
+            throw new UncheckedIOException("Běh fronty nelze přečíst z disku.", e);
+        }
+        prehraj(vitez);
+        velikost--;
+
+        return prvek;
+    }
+
+    /**
+    * Zpřístupní prvek s nejvyšší prioritou.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    * @throws IllegalStateException pokud je fronta poškozená
+    */
+    @Override
+    public T zpristupniMax() {
+        overStav();
+        if (velikost == 0) {
+            return null;
+        }
+        return vitezJeBeh() ? behy[strom[0]].aktualni : pamet.zpristupniMax();
+    }
+
+    /**
+    * Vrátí iterátor, který frontu postupně vyprazdňuje a vrací prvky od
+    * nejvyšší priority. Prvky se odebírají až při volání next, celý obsah
+    * fronty tak nemusí být v paměti najednou.
+    *
+    * @return Iterátor odebírající prvky podle priority
+    */
+    public Iterator<T> odeberVse() {
+        return new Iterator<T>() {
+
+            /**
+            * Metoda zjišťuje, zda ve frontě zbývá další prvek.
+            *
+            * @return True, pokud existuje další prvek, jinak False
+            */
+            @Override
+            public boolean hasNext() {
+                return velikost > 0;
+            }
+
+            /**
+            * Metoda odebere a vrátí prvek s nejvyšší prioritou.
+            *
+            * @return Další prvek podle priority, nebo null, pokud je fronta prázdná
+            */
+            @Override
+            public T next() {
+                return odeberMax();
+            }
+        };
+    }
+
+    /**
+    * Vyprázdní frontu do souboru seřazeně od nejvyšší priority. Soubor začíná
+    * počtem prvků (long), za ním následují prvky zapsané kodekem.
+    *
+    * @param soubor Cílový soubor
+    * @throws IOException pokud soubor nelze zapsat
+    * @throws IllegalStateException pokud je fronta poškozená
+    */
+    public void exportuj(Path soubor) throws IOException {
+        overStav();
+        try (DataOutputStream vystup = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(soubor), VELIKOST_BUFFERU))) {
+            vystup.writeLong(velikost);
+            while (velikost > 0) {
+                kodek.zapis(odeberMax(), vystup);
+            }
+        }
+    }
+
+    /**
+    * Vyprázdní frontu a smaže všechny dočasné soubory.
+    */
+    @Override
+    public void close() {
+        zrus();
+    }
+
+    private void overStav() {
+        if (poskozena) {
+            throw new IllegalStateException("Fronta je po chybě čtení z disku poškozená!");
+        }
+    }
+
+    /**
+    * Zjistí, zda má vítěz stromu běhů vyšší prioritu než vrchol haldy v paměti.
+    */
+    private boolean vitezJeBeh() {
+        if (pocetBehu == 0 || behy[strom[0]].aktualni == null) {
+            return false;
+        }
+        return pamet.jePrazdny() || komparator.compare(behy[strom[0]].aktualni, pamet.zpristupniMax()) > 0;
+    }
+
+    /**
+    * Zapíše obsah haldy v paměti do nového dočasného souboru seřazený od
+    * nejvyšší priority a přidá jej jako nový běh. Halda se přitom prochází
+    * jen iterátorem a vyprázdní se až po úspěšném zápisu, při chybě tak
+    * prvky zůstanou v paměti a rozepsaný soubor se smaže.
+    */
+    private void vysypPamet() throws IOException {
+        Path soubor = novySoubor();
+        Beh<T> beh;
+        try {
+            try (DataOutputStream vystup = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(soubor), VELIKOST_BUFFERU))) {
+                vystup.writeLong(pamet.getVelikost());
+                Iterator<T> prvky = pamet.vypis(eTypProhl.PRIORITA);
+                while (prvky.hasNext()) {
+                    kodek.zapis(prvky.next(), vystup);
+                }
+            }
+            beh = new Beh<>(soubor, kodek, 0);
+        } catch (IOException | RuntimeException e) {
+            smazSoubor(soubor, e);
+            throw e;
+        }
+
+        pamet.zrus();
+        pridejBeh(beh);
+        for (int uroven = 0; pocetBehuUrovne(uroven) >= FAKTOR_SLEVANI; uroven++) {
+            slijUroven(uroven);
+        }
+    }
+
+    /**
+    * Smaže rozepsaný soubor po chybě. Chybu mazání připojí k původní chybě.
+    */
+    private static void smazSoubor(Path soubor, Exception chyba) {
+        try {
+            Files.deleteIfExists(soubor);
+        } catch (IOException e) {
+            chyba.addSuppressed(e);
+        }
+    }
+
+    /**
+    * Vrátí počet nevyčerpaných běhů dané úrovně.
+    */
+    private int pocetBehuUrovne(int uroven) {
+        int pocet = 0;
+        for (int i = 0; i < pocetBehu; i++) {
+            if (behy[i].uroven == uroven && behy[i].aktualni != null) {
+                pocet++;
+            }
+        }
+        return pocet;
+    }
+
+    /**
+    * Slije všechny nevyčerpané běhy dané úrovně do jednoho nového běhu
+    * o úroveň vyšší. Ostatní běhy, zejména velké běhy vyšších úrovní, se
+    * nečtou ani nepřepisují. Slévané běhy se vybírají pomocnou haldou podle
+    * jejich aktuálního prvku, takže výsledný soubor je opět seřazený. Při
+    * chybě se rozepsaný soubor smaže a fronta se označí jako poškozená,
+    * protože slévané běhy už jsou rozečtené.
+    */
+    private void slijUroven(int uroven) throws IOException {
+        AbstrHeap<Beh<T>> slevane = new AbstrHeap<>((a, b) -> komparator.compare(a.aktualni, b.aktualni));
+        long pocet = 0;
+        for (int i = 0; i < pocetBehu; i++) {
+            if (behy[i].uroven == uroven && behy[i].aktualni != null) {
+                slevane.vloz(behy[i]);
+                pocet += behy[i].zbyva + 1;
+            }
+        }
+
+        Path soubor = novySoubor();
+        Beh<T> slity;
+        try {
+            try (DataOutputStream vystup = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(soubor), VELIKOST_BUFFERU))) {
+                vystup.writeLong(pocet);
+                while (!slevane.jePrazdny()) {
+                    Beh<T> beh = slevane.zpristupniMax();
+                    kodek.zapis(beh.aktualni, vystup);
+                    beh.posun();
+                    if (beh.aktualni != null) {
+                        slevane.nahradMax(beh);
+                    } else {
+                        slevane.odeberMax();
+                    }
+                }
+            }
+            slity = new Beh<>(soubor, kodek, uroven + 1);
+        } catch (IOException | RuntimeException e) {
+            poskozena = true;
+            smazSoubor(soubor, e);
+            throw e;
+        }
+
+        // Slité běhy jsou vyčerpané, pridejBeh je vynechá a sestaví strom znovu.
+        pridejBeh(slity);
+    }
+
+    private Path novySoubor() throws IOException {
+        return adresar != null ? Files.createTempFile(adresar, "halda", ".beh") : Files.createTempFile("halda", ".beh");
+    }
+
+    /**
+    * Přidá běh, vynechá přitom vyčerpané běhy a znovu sestaví strom poražených.
+    */
+    private void pridejBeh(Beh<T> beh) {
+        int pocet = 0;
+        for (int i = 0; i < pocetBehu; i++) {
+            if (behy[i].aktualni != null) {
+                behy[pocet++] = behy[i];
+            }
+        }
+        Arrays.fill(behy, pocet, pocetBehu, null);
+
+        if (pocet == behy.length) {
+            behy = Arrays.copyOf(behy, behy.length * 2);
+        }
+        behy[pocet++] = beh;
+        pocetBehu = pocet;
+
+        strom = new int[pocetBehu];
+        strom[0] = sestavStrom(1);
+    }
+
+    /**
+    * Sestaví podstrom poražených s kořenem v daném uzlu a vrátí index jeho
+    * vítěze. Listy jsou uzly pocetBehu až 2 * pocetBehu - 1.
+    */
+    private int sestavStrom(int uzel) {
+        if (uzel >= pocetBehu) {
+            return uzel - pocetBehu;
+        }
+
+        int levy = sestavStrom(2 * uzel);
+        int pravy = sestavStrom(2 * uzel + 1);
+        if (jeLepsi(levy, pravy)) {
+            strom[uzel] = pravy;
+            return levy;
+        }
+        strom[uzel] = levy;
+        return pravy;
+    }
+
+    /**
+    * Přehraje zápasy na cestě od listu běhu ke kořeni poté, co se změnil
+    * aktuální prvek běhu.
+    */
+    private void prehraj(int beh) {
+        int vitez = beh;
+        for (int uzel = (beh + pocetBehu) / 2; uzel > 0; uzel /= 2) {
+            if (jeLepsi(strom[uzel], vitez)) {
+                int porazeny = vitez;
+                vitez = strom[uzel];
+                strom[uzel] = porazeny;
+            }
+        }
+        strom[0] = vitez;
+    }
+
+    /**
+    * Zjistí, zda má aktuální prvek běhu a vyšší prioritu než aktuální prvek
+    * běhu b. Vyčerpaný běh prohrává vždy.
+    */
+    private boolean jeLepsi(int a, int b) {
+        T prvekA = behy[a].aktualni;
+        T prvekB = behy[b].aktualni;
+        if (prvekA == null) {
+            return false;
+        }
+        return prvekB == null || komparator.compare(prvekA, prvekB) > 0;
+    }
+}
@@ -1,213 +1,1492 @@
 package prioritni_fronta;
 
+import enumy.eRezimReorganizace;
+import enumy.eRozlozeniHaldy;
+import enumy.eStrategieTraverzovani;
 import enumy.eTypProhl;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
-import rozhrani.IAbstrFifo;
-import zasobnik_fronta.AbstrLifo;
-import rozhrani.IAbstrLifo;
-import zasobnik_fronta.AbstrFifo;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import seznam.AbstrDoubleList;
+import rozhrani.IAbstrDoubleList;
+import rozhrani.IAbstrHeap;
 
 /**
 * Abstraktní třída pro implementaci haldy (heap), která je generická a může
 * pracovat s jakýmkoliv typem dat, pokud je zajištěn komparátor pro porovnávání
 * těchto dat.
 * 
+* <p>Uzly jsou v poli uloženy buď po úrovních, nebo po blocích (B-heap), viz
+* {@link eRozlozeniHaldy}. Výpočet indexů rodiče a potomků je soustředěn
+* v metodách indexRodice, indexPotomka a poradiPotomka, na které spoléhá
+* procházení haldou, budování i všechny iterátory.
+* 
 * @param <T> Typ prvků v haldě
 */
-public class AbstrHeap<T> {
+public class AbstrHeap<T> implements IAbstrHeap<T> {
+
+    private static final int VYCHOZI_ARITA = 2;
+    private static final int PRAH_PARALELNIHO_BUDOVANI = 1 << 13; // Menší podstromy se budují sekvenčně
+    private static final int VELIKOST_USEKU = 64; // Počet nezpracovaných uzlů na jedno uložené maximum úseku
+    private static final int MAX_VELIKOST_BLOKU = 1024; // Nejvýše 1024 odkazů v bloku, přibližně 4 KiB
+
+    private T[] polePrvku;
+    private int velikost;
+    private Comparator<T> komparator;
+    private final int arita; // Počet potomků každého uzlu (2 = binární halda)
+    private final eRozlozeniHaldy rozlozeni;
+    private final int velikostBloku; // Počet uzlů jednoho bloku pole, 1 při rozložení po úrovních
+    private final int pocetVnitrnich; // Počet uzlů bloku, jejichž potomci leží ve stejném bloku
+    private final int potomkuBloku; // Počet bloků, jejichž kořeny jsou potomky listů jednoho bloku
+    private eStrategieTraverzovani strategie = eStrategieTraverzovani.DIRA;
+    private final Pocitadla pocitadla = new Pocitadla(); // Porovnání a přesuny při procházení haldou
+    private Function<? super T, ?> klic; // Funkce klíče prvku (např. název obce), nebo null
+    private HashMap<Object, Integer> indexyKlicu; // Klíč prvku -> index v poli haldy
+    private boolean mapaPozastavena; // Mapa klíčů se neudržuje (paralelní budování)
+    private int zbyvaUsporadat = -1; // Index dalšího uzlu nedokončené reorganizace, -1 pokud je halda uspořádaná
+    private boolean linaReorganizace; // Nedokončená reorganizace se dokončí při prvním přístupu
+    private T[] maximaUseku; // Maxima nezpracovaných uzlů od kořene po konec každého úseku, null = zatím nespočtena
+    private T maxUsporadanych; // Maximum již zpracovaných uzlů, platné spolu s maximaUseku
+
+    public AbstrHeap() {
+        this(VYCHOZI_ARITA);
+    }
+
+    /**
+    * Vytvoří d-ární haldu se zadaným počtem potomků každého uzlu. Širší uzly
+    * znamenají mělčí strom a méně výpadků cache při odebírání maxima.
+    * 
+    * @param arita Počet potomků každého uzlu (alespoň 2)
+    * @throws IllegalArgumentException pokud je arita menší než 2
+    */
+    public AbstrHeap(int arita) {
+        this(null, arita);
+    }
+
+    public AbstrHeap(Comparator<T> komparator) {
+        this(komparator, VYCHOZI_ARITA);
+    }
+
+    /**
+    * Vytvoří prázdnou d-ární haldu s daným komparátorem, do které lze rovnou
+    * vkládat bez předchozího vybudování.
+    * 
+    * @param komparator Komparátor pro porovnávání prvků
+    * @param arita Počet potomků každého uzlu (alespoň 2)
+    * @throws IllegalArgumentException pokud je arita menší než 2
+    */
+    public AbstrHeap(Comparator<T> komparator, int arita) {
+        this(komparator, arita, eRozlozeniHaldy.PO_UROVNICH);
+    }
+
+    /**
+    * Vytvoří prázdnou d-ární haldu s daným rozložením uzlů v poli. Při
+    * rozložení po blocích má každý blok tolik úplných úrovní, kolik se jich
+    * vejde do 1024 uzlů (pro binární haldu 10 úrovní).
+    * 
+    * @param komparator Komparátor pro porovnávání prvků
+    * @param arita Počet potomků každého uzlu (alespoň 2)
+    * @param rozlozeni Rozložení uzlů haldy v poli
+    * @throws IllegalArgumentException pokud je arita menší než 2 nebo
+    * rozložení není zadáno
+    */
+    public AbstrHeap(Comparator<T> komparator, int arita, eRozlozeniHaldy rozlozeni) {
+        if (arita < 2) {
+            throw new IllegalArgumentException("Arita haldy musí být alespoň 2!");
+        }
+        if (rozlozeni == null) {
+            throw new IllegalArgumentException("Rozložení haldy musí být zadáno!");
+        }
+        this.komparator = komparator;
+        this.arita = arita;
+        this.rozlozeni = rozlozeni;
+
+        // Blok je úplný d-ární podstrom: vnitřní uzly, pod nimi jedna úroveň listů.
+        int vnitrnich = 0;
+        int listu = 1;
+        if (rozlozeni == eRozlozeniHaldy.PO_BLOCICH) {
+            while ((long) vnitrnich + listu + (long) listu * arita <= MAX_VELIKOST_BLOKU) {
+                vnitrnich += listu;
+                listu *= arita;
+            }
+        }
+        this.pocetVnitrnich = vnitrnich;
+        this.velikostBloku = vnitrnich + listu;
+        this.potomkuBloku = listu * arita;
+    }
+    
+    /**
+    * Metoda pro vybudování haldy z daného pole prvků a komparátoru.
+    * 
+    * @param prvky Pole prvků, které budou tvořit haldu
+    * @param novyKomparator Komparátor pro porovnávání prvků
+    */
+    public void vybuduj(T[] prvky, Comparator<T> novyKomparator) {
+        vybuduj(prvky, novyKomparator, false);
+    }
+
+    /**
+    * Metoda pro vybudování haldy z daného pole prvků a komparátoru. Při
+    * paralelním budování se nezávislé podstromy uspořádají souběžně na
+    * společném fork-join poolu, horní úrovně se dorovnají až po jejich
+    * dokončení. Malé haldy se vždy budují sekvenčně.
+    * 
+    * @param prvky Pole prvků, které budou tvořit haldu
+    * @param novyKomparator Komparátor pro porovnávání prvků
+    * @param paralelne True, pokud se má halda budovat paralelně
+    */
+    public void vybuduj(T[] prvky, Comparator<T> novyKomparator, boolean paralelne) {
+        if (klic != null) {
+            indexyKlicu = vytvorMapuKlicu(prvky, prvky.length);
+        }
+        this.polePrvku = Arrays.copyOfRange(prvky, 0, prvky.length);
+        this.velikost = prvky.length;
+        this.komparator = novyKomparator;
+
+        usporadej(paralelne);
+    }
+
+    /**
+    * Získání arity haldy (počet potomků každého uzlu).
+    * 
+    * @return Arita haldy
+    */
+    public int getArita() {
+        return this.arita;
+    }
+
+    public eRozlozeniHaldy getRozlozeni() {
+        return rozlozeni;
+    }
+
+    public eStrategieTraverzovani getStrategie() {
+        return strategie;
+    }
+
+    /**
+    * Nastaví způsob, jakým halda obnovuje své uspořádání při procházení
+    * nahoru a dolů.
+    * 
+    * @param strategie Strategie procházení haldou
+    */
+    public void setStrategie(eStrategieTraverzovani strategie) {
+        if (strategie != null) {
+            this.strategie = strategie;
+        }
+    }
+
+    /**
+    * Vrátí počet porovnání prvků provedených při procházení haldou od
+    * vytvoření haldy nebo od posledního vynulování počítadel.
+    * 
+    * @return Počet porovnání
+    */
+    public long getPocetPorovnani() {
+        return pocitadla.porovnani;
+    }
+
+    /**
+    * Vrátí počet zápisů prvků do pole provedených při procházení haldou od
+    * vytvoření haldy nebo od posledního vynulování počítadel.
+    * 
+    * @return Počet přesunů
+    */
+    public long getPocetPresunu() {
+        return pocitadla.presuny;
+    }
+
+    /**
+    * Vynuluje počítadla porovnání a přesunů.
+    */
+    public void vynulujPocitadla() {
+        pocitadla.porovnani = 0;
+        pocitadla.presuny = 0;
+    }
+
+    /**
+    * Nastaví funkci, která z prvku získá jeho jednoznačný klíč (např. název
+    * obce). Halda pak udržuje mapu z klíče na index prvku v poli, díky které
+    * lze prvek podle klíče odebrat v čase O(log n). Mapa se vytvoří nad
+    * prvky, které už v haldě jsou. Hodnota null funkci klíče zruší.
+    * 
+    * @param klic Funkce klíče prvku, nebo null
+    * @throws IllegalArgumentException pokud mají dva prvky haldy stejný klíč
+    */
+    public void setKlic(Function<? super T, ?> klic) {
+        if (klic == null) {
+            this.klic = null;
+            this.indexyKlicu = null;
+            return;
+        }
+
+        Function<? super T, ?> puvodniKlic = this.klic;
+        this.klic = klic;
+        try {
+            this.indexyKlicu = vytvorMapuKlicu(polePrvku, velikost);
+        } catch (IllegalArgumentException e) {
+            this.klic = puvodniKlic;
+            throw e;
+        }
+    }
+
+    /**
+    * Získání velikosti haldy (počet prvků).
+    * 
+    * @return Velikost haldy
+    */
+    @Override
+    public int getVelikost() {
+        return this.velikost;
+    }
+
+    /**
+    * Reorganizace haldy s novým komparátorem.
+    * 
+    * @param novyKomparator Komparátor pro porovnávání prvků
+    */
+    public void reorganizace(Comparator<T> novyKomparator) {
+        reorganizace(novyKomparator, false);
+    }
+
+    /**
+    * Reorganizace haldy s novým komparátorem, volitelně paralelně stejně
+    * jako při vybudování haldy.
+    * 
+    * @param novyKomparator Komparátor pro porovnávání prvků
+    * @param paralelne True, pokud se má halda reorganizovat paralelně
+    */
+    public void reorganizace(Comparator<T> novyKomparator, boolean paralelne) {
+        if (novyKomparator != null) {
+            this.komparator = novyKomparator;
+
+            usporadej(paralelne);
+        }
+    }
+
+    /**
+    * Reorganizace haldy s novým komparátorem v daném režimu. V líném režimu
+    * se halda jen označí jako neuspořádaná a celá se uspořádá až při
+    * dalším přístupu (zpřístupnění, odebrání, vložení nebo výpisu). V postupném
+    * režimu ji uspořádávají volání metody krokReorganizace, zpřístupnění
+    * maxima mezitím vrací správný prvek bez dokončení reorganizace, vložení
+    * připojí prvek do již uspořádané části a ostatní operace reorganizaci
+    * před svým provedením dokončí.
+    * 
+    * @param novyKomparator Komparátor pro porovnávání prvků
+    * @param rezim Režim reorganizace
+    * @throws IllegalArgumentException pokud režim není zadán
+    */
+    public void reorganizace(Comparator<T> novyKomparator, eRezimReorganizace rezim) {
+        if (rezim == null) {
+            throw new IllegalArgumentException("Režim reorganizace musí být zadán!");
+        }
+        if (novyKomparator == null) {
+            return;
+        }
+        if (rezim == eRezimReorganizace.OKAMZITA) {
+            reorganizace(novyKomparator, false);
+            return;
+        }
+
+        this.komparator = novyKomparator;
+        this.zbyvaUsporadat = indexPoslednihoRodice();
+        this.linaReorganizace = rezim == eRezimReorganizace.LINA;
+        zahodMaximaReorganizace();
+    }
+
+    /**
+    * Provede nejvýše daný počet kroků nedokončené reorganizace, každý krok
+    * je jedno „down-heapify“ Floydova algoritmu. Uzly se zpracovávají od
+    * posledního rodiče ke kořeni, takže podstromy již zpracovaných uzlů jsou
+    * vždy uspořádané. Listy, které se při rozložení po blocích s rodiči
+    * střídají, se jen přeskočí.
+    * 
+    * @param pocetKroku Nejvyšší počet provedených kroků
+    * @return True, pokud je reorganizace dokončena, jinak false
+    */
+    public boolean krokReorganizace(int pocetKroku) {
+        for (int i = 0; i < pocetKroku && zbyvaUsporadat >= 0; i++) {
+            int index = zbyvaUsporadat--;
+            if (maPotomky(index)) {
+                traversujDolu(index);
+            }
+            zapocitejUsporadany(polePrvku[index]);
+        }
+        if (zbyvaUsporadat < 0) {
+            zahodMaximaReorganizace();
+        }
+        return zbyvaUsporadat < 0;
+    }
+
+    /**
+    * Dokončí nedokončenou reorganizaci haldy, pokud nějaká probíhá.
+    */
+    public void dokonciReorganizaci() {
+        krokReorganizace(Integer.MAX_VALUE);
+    }
+
+    /**
+    * Zjistí, zda halda čeká na dokončení líné nebo postupné reorganizace.
+    * 
+    * @return True, pokud reorganizace není dokončena, jinak false
+    */
+    public boolean probihaReorganizace() {
+        return zbyvaUsporadat >= 0;
+    }
+
+    /**
+    * Metoda pro zrušení haldy. Vyprázdní ji.
+    */
+    @Override
+    public void zrus() {
+        polePrvku = null;
+        velikost = 0;
+        zbyvaUsporadat = -1;
+        zahodMaximaReorganizace();
+        if (indexyKlicu != null) {
+            indexyKlicu.clear();
+        }
+    }
+
+    /**
+    * Kontrola, zda je halda prázdná.
+    * 
+    * @return True, pokud je halda prázdná, jinak false
+    */
+    @Override
+    public boolean jePrazdny() {
+        return velikost == 0;
+    }
+    
+    /**
+    * Vloží prvek do haldy a provede její reorganizaci. Během postupné
+    * reorganizace se prvek připojí do již uspořádané části haldy a probublá
+    * nahoru jen po první dosud nezpracovaný uzel, reorganizace se tedy
+    * nedokončuje.
+    * 
+    * @param prvek Prvek, který má být vložen
+    */
+    @Override
+    public void vloz(T prvek) {
+        if (linaReorganizace) {
+            dokonciReorganizaci();
+        }
+        zaregistrujKlic(prvek, velikost);
+        zajistiKapacitu(velikost + 1);
+
+        polePrvku[velikost] = prvek;
+        velikost++;
+
+        traversujNahoru(velikost - 1, zbyvaUsporadat);
+        zapocitejUsporadany(prvek);
+    }
+
+    /**
+    * Hromadně vloží pole prvků do haldy. Prvky se nejprve připojí na konec
+    * pole a teprve potom se obnoví vlastnost haldy, a to buď probubláním
+    * každého nového prvku nahoru (malá dávka vzhledem k haldě), nebo jedním
+    * průchodem zdola nahoru přes předky nových prvků (velká dávka), který
+    * běží v lineárním čase. Během postupné reorganizace se prvky vkládají
+    * stejně jako metodou vloz.
+    * 
+    * @param prvky Pole prvků, které mají být vloženy
+    */
+    public void vlozVse(T[] prvky) {
+        vlozVse(prvky, prvky.length);
+    }
+
+    /**
+    * Hromadně vloží všechny prvky dané kolekce do haldy, viz
+    * {@link #vlozVse(Object[])}. Prvky se nejprve uloží do pomocného pole,
+    * takže při duplicitním klíči se halda nezmění stejně jako při vložení
+    * pole.
+    * 
+    * @param prvky Kolekce prvků, které mají být vloženy
+    */
+    @SuppressWarnings("unchecked")
+    public void vlozVse(Iterable<? extends T> prvky) {
+        T[] pomocnePole = (T[]) new Object[16];
+        int pocet = 0;
+        for (T prvek : prvky) {
+            if (pocet == pomocnePole.length) {
+                pomocnePole = Arrays.copyOf(pomocnePole, pocet * 2);
+            }
+            pomocnePole[pocet++] = prvek;
+        }
+
+        vlozVse(pomocnePole, pocet);
+    }
+
+    /**
+    * Hromadně vloží prvních pocet prvků pole. Pokud má některý prvek
+    * duplicitní klíč, odregistrují se klíče již zapsaných prvků a halda
+    * zůstane nezměněná.
+    */
+    private void vlozVse(T[] prvky, int pocet) {
+        zkontrolujKomparator();
+        if (linaReorganizace) {
+            dokonciReorganizaci();
+        }
+        int puvodniVelikost = velikost;
+
+        for (int i = 0; i < pocet; i++) {
+            try {
+                zaregistrujKlic(prvky[i], velikost + i);
+            } catch (IllegalArgumentException e) {
+                for (int j = 0; j < i; j++) {
+                    indexyKlicu.remove(klic.apply(prvky[j]));
+                }
+                throw e;
+            }
+        }
+
+        zajistiKapacitu(velikost + pocet);
+        System.arraycopy(prvky, 0, polePrvku, velikost, pocet);
+        velikost += pocet;
+
+        if (zbyvaUsporadat < 0) {
+            dokonciHromadneVlozeni(puvodniVelikost);
+            return;
+        }
+        for (int i = 0; i < pocet; i++) {
+            traversujNahoru(puvodniVelikost + i, zbyvaUsporadat);
+            zapocitejUsporadany(prvky[i]);
+        }
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou (maximální hodnotu) a vrátí ji, provede reorganizaci.
+    * 
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je halda prázdná
+    */
+    @Override
+    public T odeberMax() {
+        if (velikost == 0) {
+            return null;
+        }
+
+        dokonciReorganizaci();
+        return odeberNaIndexu(0);
+    }
+    
+    /**
+    * Zpřístupní prvek s nejvyšší prioritou. Během postupné reorganizace je
+    * maximum buď mezi dosud nezpracovanými uzly, nebo je to maximum již
+    * zpracovaných uzlů, protože každý zpracovaný uzel je kořenem
+    * uspořádaného podstromu.
+    * 
+    * <p>Nezpracované uzly se kroky reorganizace nemění, ubývají jen od konce.
+    * První zpřístupnění proto jednou porovná všechny prvky (žádný z nich
+    * ještě nebyl s novým komparátorem porovnán) a uloží si maximum každého
+    * úseku nezpracovaných uzlů od kořene a maximum zpracovaných uzlů, které
+    * pak kroky reorganizace a vložení jen aktualizují. Každé další
+    * zpřístupnění stojí nejvýše VELIKOST_USEKU + 1 porovnání.
+    * 
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je halda prázdná
+    */
+    @Override
+    public T zpristupniMax() {
+        if (velikost == 0) {
+            return null;
+        }
+        if (zbyvaUsporadat < 0 || linaReorganizace) {
+            dokonciReorganizaci();
+            return polePrvku[0];
+        }
+
+        if (maximaUseku == null) {
+            spoctiMaximaReorganizace();
+        }
+        int usek = zbyvaUsporadat / VELIKOST_USEKU;
+        T maxPrvek = usek > 0 ? maximaUseku[usek - 1] : polePrvku[0];
+        for (int i = usek * VELIKOST_USEKU; i <= zbyvaUsporadat; i++) {
+            if (komparator.compare(polePrvku[i], maxPrvek) > 0) {
+                maxPrvek = polePrvku[i];
+            }
+        }
+        return komparator.compare(maxUsporadanych, maxPrvek) > 0 ? maxUsporadanych : maxPrvek;
+    }
+
+    /**
+    * Spočte maxima úseků nezpracovaných uzlů a maximum zpracovaných uzlů
+    * nedokončené postupné reorganizace.
+    */
+    @SuppressWarnings("unchecked")
+    private void spoctiMaximaReorganizace() {
+        maximaUseku = (T[]) new Object[zbyvaUsporadat / VELIKOST_USEKU + 1];
+        T maxPrvek = polePrvku[0];
+        for (int i = 0; i <= zbyvaUsporadat; i++) {
+            if (komparator.compare(polePrvku[i], maxPrvek) > 0) {
+                maxPrvek = polePrvku[i];
+            }
+            if (i % VELIKOST_USEKU == VELIKOST_USEKU - 1) {
+                maximaUseku[i / VELIKOST_USEKU] = maxPrvek;
+            }
+        }
+
+        maxUsporadanych = polePrvku[zbyvaUsporadat + 1];
+        for (int i = zbyvaUsporadat + 2; i < velikost; i++) {
+            zapocitejUsporadany(polePrvku[i]);
+        }
+    }
+
+    /**
+    * Započte prvek, který se stal součástí již zpracované části haldy, do
+    * jejího maxima, pokud je maximum spočtené.
+    */
+    private void zapocitejUsporadany(T prvek) {
+        if (maximaUseku != null && komparator.compare(prvek, maxUsporadanych) > 0) {
+            maxUsporadanych = prvek;
+        }
+    }
+
+    /**
+    * Zahodí maxima nedokončené postupné reorganizace.
+    */
+    private void zahodMaximaReorganizace() {
+        maximaUseku = null;
+        maxUsporadanych = null;
+    }
+
+    /**
+    * Nahradí prvek s nejvyšší prioritou novým prvkem a provede reorganizaci.
+    * Je to rychlejší než odebrání maxima následované vložením, protože se
+    * halda prochází jen jednou.
+    * 
+    * @param prvek Prvek, který nahradí kořen haldy
+    * @return Původní prvek s nejvyšší prioritou nebo null, pokud byla halda prázdná
+    */
+    public T nahradMax(T prvek) {
+        if (velikost == 0) {
+            vloz(prvek);
+            return null;
+        }
+
+        dokonciReorganizaci();
+        T maxPrvek = polePrvku[0];
+        if (indexyKlicu != null) {
+            Object puvodniKlic = klic.apply(maxPrvek);
+            indexyKlicu.remove(puvodniKlic);
+            try {
+                zaregistrujKlic(prvek, 0);
+            } catch (IllegalArgumentException e) {
+                indexyKlicu.put(puvodniKlic, 0);
+                throw e;
+            }
+        }
+        polePrvku[0] = prvek;
+        traversujDolu(0);
+
+        return maxPrvek;
+    }
+
+    /**
+    * Odebere z haldy prvek s daným klíčem v čase O(log n). Na jeho místo se
+    * přesune poslední prvek haldy a probublá nahoru nebo dolů.
+    * 
+    * @param klicPrvku Klíč odebíraného prvku
+    * @return Odebraný prvek nebo null, pokud prvek s daným klíčem v haldě není
+    * @throws IllegalStateException pokud halda nemá nastavenou funkci klíče
+    */
+    public T odeber(Object klicPrvku) {
+        if (indexyKlicu == null) {
+            throw new IllegalStateException("Halda nemá nastavenou funkci klíče!");
+        }
+
+        dokonciReorganizaci();
+        Integer index = indexyKlicu.get(klicPrvku);
+        return index != null ? odeberNaIndexu(index) : null;
+    }
+
+    /**
+    * Odebere z haldy všechny prvky, které splňují danou podmínku (např. všechny
+    * obce jednoho kraje). Podmínka se nejprve vyhodnotí pro všechny prvky a
+    * teprve potom se zbylé prvky jedním průchodem přesunou na začátek pole a
+    * halda se znovu vybuduje, celé odebrání tak stojí O(n). Pokud podmínka
+    * vyhodí výjimku, zůstane halda beze změny.
+    * 
+    * @param podminka Podmínka, kterou odebírané prvky splňují
+    * @return Seznam odebraných prvků v pořadí, v jakém byly v poli haldy
+    */
+    public IAbstrDoubleList<T> odeberVsechnyKde(Predicate<? super T> podminka) {
+        IAbstrDoubleList<T> odebrane = new AbstrDoubleList<>();
+
+        boolean[] odebrat = new boolean[velikost];
+        for (int i = 0; i < velikost; i++) {
+            odebrat[i] = podminka.test(polePrvku[i]);
+        }
+
+        int novaVelikost = 0;
+        for (int i = 0; i < velikost; i++) {
+            T prvek = polePrvku[i];
+            if (odebrat[i]) {
+                odebrane.vlozPosledni(prvek);
+                if (indexyKlicu != null) {
+                    indexyKlicu.remove(klic.apply(prvek));
+                }
+            } else {
+                if (novaVelikost != i) {
+                    umisti(novaVelikost, prvek);
+                }
+                novaVelikost++;
+            }
+        }
+
+        if (novaVelikost != velikost) {
+            Arrays.fill(polePrvku, novaVelikost, velikost, null);
+            velikost = novaVelikost;
+            usporadej(false);
+        }
+
+        return odebrane;
+    }
+
+    /**
+    * Odebere k prvků s nejvyšší prioritou a vrátí je seřazené od nejvyšší
+    * priority. Pokud má halda méně prvků, odebere všechny.
+    * 
+    * @param k Počet odebíraných prvků
+    * @return Seznam odebraných prvků seřazený podle priority
+    */
+    public IAbstrDoubleList<T> odeberMaxK(int k) {
+        IAbstrDoubleList<T> vysledek = new AbstrDoubleList<>();
+
+        for (int i = 0; i < k && velikost > 0; i++) {
+            vysledek.vlozPosledni(odeberMax());
+        }
+
+        return vysledek;
+    }
+
+    /**
+    * Zpřístupní k prvků s nejvyšší prioritou seřazených od nejvyšší priority,
+    * aniž by se halda změnila. Kandidáti se vybírají pomocí pomocné haldy
+    * indexů, do které se vždy přidají potomci právě vybraného prvku, takže
+    * složitost je O(k log k) nezávisle na velikosti haldy.
+    * 
+    * @param k Počet zpřístupňovaných prvků
+    * @return Seznam prvků s nejvyšší prioritou seřazený podle priority
+    */
+    public IAbstrDoubleList<T> zpristupniMaxK(int k) {
+        IAbstrDoubleList<T> vysledek = new AbstrDoubleList<>();
+        if (velikost == 0 || k <= 0) {
+            return vysledek;
+        }
+        dokonciReorganizaci();
+
+        HraniceIndexu hranice = new HraniceIndexu(Math.min(k, velikost) * (arita - 1) + 1);
+        hranice.vloz(0);
+
+        for (int i = 0; i < k && !hranice.jePrazdna(); i++) {
+            int index = hranice.odeber();
+            vysledek.vlozPosledni(polePrvku[index]);
+            hranice.vlozPotomky(index);
+        }
+
+        return vysledek;
+    }
+    
+    /**
+    * Zpřístupní k-tý prvek podle priority (k = 1 je maximum), aniž by se
+    * halda změnila. Prvky se vybírají z hranice indexů stejně jako
+    * v metodě zpristupniMaxK, složitost je tedy O(k log k) nezávisle na
+    * velikosti haldy.
+    * 
+    * @param k Pořadí prvku podle priority, počítáno od 1
+    * @return K-tý prvek podle priority nebo null, pokud má halda méně než k prvků
+    * @throws IllegalArgumentException pokud k není kladné
+    */
+    public T zpristupniKty(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Pořadí prvku musí být kladné!");
+        }
+        if (k > velikost) {
+            return null;
+        }
+        dokonciReorganizaci();
+
+        HraniceIndexu hranice = new HraniceIndexu(k * (arita - 1) + 1);
+        hranice.vloz(0);
+
+        int index = 0;
+        for (int i = 0; i < k; i++) {
+            index = hranice.odeber();
+            hranice.vlozPotomky(index);
+        }
+        return polePrvku[index];
+    }
+
+    /**
+    * Spočítá prvky s vyšší prioritou, než má daný prvek (např. obce s více
+    * obyvateli, než je zadaná hranice), aniž by se halda změnila. Pokud
+    * prvek nemá vyšší prioritu než prah, nemá ji ani nikdo z jeho potomků,
+    * celý jeho podstrom se proto přeskočí. Projde se tak jen O(m * d) prvků,
+    * kde m je výsledný počet a d arita haldy.
+    * 
+    * @param prah Prvek, se kterým se prvky haldy porovnávají komparátorem haldy
+    * @return Počet prvků s vyšší prioritou, než má prah
+    */
+    public int pocetVetsichNez(T prah) {
+        if (velikost == 0) {
+            return 0;
+        }
+        dokonciReorganizaci();
+
+        int pocet = 0;
+        int[] zasobnik = new int[16];
+        int vrchol = 0;
+        zasobnik[vrchol++] = 0;
+
+        while (vrchol > 0) {
+            int index = zasobnik[--vrchol];
+            if (komparator.compare(polePrvku[index], prah) <= 0) {
+                continue;
+            }
+            pocet++;
+
+            for (int k = 0; k < arita; k++) {
+                int potomek = indexPotomka(index, k);
+                if (potomek >= velikost) {
+                    break;
+                }
+                if (vrchol == zasobnik.length) {
+                    zasobnik = Arrays.copyOf(zasobnik, zasobnik.length * 2);
+                }
+                zasobnik[vrchol++] = potomek;
+            }
+        }
+
+        return pocet;
+    }
+    
+    /**
+    * Vytvoří a vrátí iterator pro procházení haldy podle zvoleného typu prohlížení.
+    * Při prohlížení podle priority vrací iterátor prvky seřazené od nejvyšší
+    * priority, aniž by haldu měnil.
+    * 
+    * @param typProhl Typ prohlížení, zda do hloubky, do šířky nebo podle priority
+    * @return Iterator pro procházení haldy
+    */
+    public Iterator<T> vypis(eTypProhl typProhl) {
+        dokonciReorganizaci();
+        switch (typProhl) {
+            case HLOUBKA:
+                return new IteratorHloubka();
+            case SIRKA:
+                return new IteratorSirka();
+            case PRIORITA:
+                return new IteratorPriorita();
+            default:
+                System.out.println("Neznámý typ prohlížení.");
+                return null;
+        }
+    }
+
+    /**
+    * Vytvoří spliterator nad prvky haldy v pořadí pole (při rozložení po
+    * úrovních do šířky). Při paralelním zpracování se dělí na poloviny podle
+    * rozsahu indexů, takže lze haldu agregovat na fork-join poolu bez
+    * kopírování prvků. Během procházení se halda nesmí měnit.
+    * 
+    * @return Spliterator prvků haldy
+    */
+    public Spliterator<T> spliterator() {
+        if (velikost == 0) {
+            return Spliterators.emptySpliterator();
+        }
+        return Spliterators.spliterator(polePrvku, 0, velikost, Spliterator.ORDERED);
+    }
+
+    /**
+    * Vytvoří proud prvků haldy v pořadí pole.
+    * 
+    * @param paralelni True, pokud má být proud zpracován paralelně
+    * @return Proud prvků haldy
+    */
+    public Stream<T> stream(boolean paralelni) {
+        return StreamSupport.stream(spliterator(), paralelni);
+    }
+
+    /**
+    * Vytvoří sekvenční proud prvků haldy v pořadí pole.
+    * 
+    * @return Proud prvků haldy
+    */
+    public Stream<T> stream() {
+        return stream(false);
+    }
+
+    /**
+    * Uspořádá celé pole do haldy (Floydův algoritmus). Paralelně jen tehdy,
+    * pokud je halda větší než práh pro paralelní budování. Úlohy
+    * paralelního budování si porovnání a přesuny počítají samy a po
+    * dokončení se přičtou k počítadlům haldy.
+    */
+    private void usporadej(boolean paralelne) {
+        zbyvaUsporadat = -1;
+        zahodMaximaReorganizace();
+        if (paralelne && velikost > PRAH_PARALELNIHO_BUDOVANI) {
+            // HashMap není vláknově bezpečná, mapa klíčů se obnoví až po dokončení.
+            mapaPozastavena = true;
+            try {
+                BudovaniPodstromu koren = new BudovaniPodstromu(0, velikost);
+                ForkJoinPool.commonPool().invoke(koren);
+                pocitadla.pricti(koren.pocitadlaUlohy);
+            } finally {
+                mapaPozastavena = false;
+            }
+            if (indexyKlicu != null) {
+                indexyKlicu = vytvorMapuKlicu(polePrvku, velikost);
+            }
+        } else {
+            for (int i = indexPoslednihoRodice(); i >= 0; i--) {
+                if (maPotomky(i)) {
+                    traversujDolu(i);
+                }
+            }
+        }
+    }
+
+    /**
+    * Sekvenčně uspořádá podstrom s kořenem na daném indexu: nejprve
+    * podstromy potomků, potom kořen.
+    */
+    private void usporadejPodstrom(int index, Pocitadla pocitadlaUlohy) {
+        if (!maPotomky(index)) {
+            return;
+        }
+
+        for (int k = 0; k < arita; k++) {
+            int potomek = indexPotomka(index, k);
+            if (potomek >= velikost) {
+                break;
+            }
+            usporadejPodstrom(potomek, pocitadlaUlohy);
+        }
+        traversujDolu(index, pocitadlaUlohy);
+    }
+
+    /**
+    * Provádí operaci „up-heapify“ (procházení nahoru) pro prvek na daném
+    * indexu podle zvolené strategie.
+    * 
+    * @param index Index prvku, který má být zpracován
+    */
+    private void traversujNahoru(int index) {
+        traversujNahoru(index, -1);
+    }
+
+    /**
+    * Provádí operaci „up-heapify“ pro prvek na daném indexu, prvek však
+    * nepostoupí na rodiče s indexem hranice nebo nižším (během postupné
+    * reorganizace na dosud nezpracovaný uzel).
+    * 
+    * @param index Index prvku, který má být zpracován
+    * @param hranice Nejvyšší index rodiče, na kterého prvek nepostoupí, -1 bez omezení
+    */
+    private void traversujNahoru(int index, int hranice) {
+        if (strategie == eStrategieTraverzovani.PROHAZOVANI) {
+            traversujNahoruProhazovanim(index, hranice);
+        } else {
+            traversujNahoruDirou(index, hranice);
+        }
+    }
+
+    /**
+    * Provádí operaci „down-heapify“ (procházení dolů) pro prvek na daném
+    * indexu podle zvolené strategie.
+    * 
+    * @param index Index prvku, který má být zpracován
+    */
+    private void traversujDolu(int index) {
+        traversujDolu(index, pocitadla);
+    }
+
+    /**
+    * Provádí operaci „down-heapify“ pro prvek na daném indexu a porovnání
+    * i přesuny započítá do daných počítadel (při paralelním budování do
+    * počítadel úlohy).
+    * 
+    * @param index Index prvku, který má být zpracován
+    * @param pocitadlaUlohy Počítadla, do kterých se operace započítají
+    */
+    private void traversujDolu(int index, Pocitadla pocitadlaUlohy) {
+        switch (strategie) {
+            case PROHAZOVANI:
+                traversujDoluProhazovanim(index, pocitadlaUlohy);
+                break;
+            case ZDOLA_NAHORU:
+                traversujDoluZdolaNahoru(index, pocitadlaUlohy);
+                break;
+            default:
+                traversujDoluDirou(index, pocitadlaUlohy);
+        }
+    }
+
+    private void traversujNahoruProhazovanim(int index, int hranice) {
+        while (indexRodice(index) > hranice) {
+            int indexRodice = indexRodice(index);
+            if (porovnej(polePrvku[index], polePrvku[indexRodice], pocitadla) > 0) {
+                prohod(index, indexRodice, pocitadla);
+                index = indexRodice;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void traversujDoluProhazovanim(int index, Pocitadla pocitadlaUlohy) {
+        int nejvyssiPriorita = index;
+        for (int k = 0; k < arita; k++) {
+            int potomek = indexPotomka(index, k);
+            if (potomek >= velikost) {
+                break;
+            }
+            if (porovnej(polePrvku[potomek], polePrvku[nejvyssiPriorita], pocitadlaUlohy) > 0) {
+                nejvyssiPriorita = potomek;
+            }
+        }
+
+        if (nejvyssiPriorita != index) {
+            prohod(index, nejvyssiPriorita, pocitadlaUlohy);
+            traversujDoluProhazovanim(nejvyssiPriorita, pocitadlaUlohy);
+        }
+    }
 
-    private T[] polePrvku;
-    private int velikost;
-    private Comparator<T> komparator;
+    /**
+    * Procházení nahoru s dírou: prvek se drží stranou, rodiče s nižší
+    * prioritou se posouvají dolů a prvek se zapíše jen jednou na konci.
+    */
+    private void traversujNahoruDirou(int index, int hranice) {
+        T prvek = polePrvku[index];
 
-    public AbstrHeap() {
+        while (indexRodice(index) > hranice) {
+            int indexRodice = indexRodice(index);
+            if (porovnej(prvek, polePrvku[indexRodice], pocitadla) <= 0) {
+                break;
+            }
+            nastav(index, polePrvku[indexRodice], pocitadla);
+            index = indexRodice;
+        }
+
+        nastav(index, prvek, pocitadla);
     }
-    
+
     /**
-    * Metoda pro vybudování haldy z daného pole prvků a komparátoru.
-    * 
-    * @param prvky Pole prvků, které budou tvořit haldu
-    * @param novyKomparator Komparátor pro porovnávání prvků
+    * Procházení dolů s dírou: prvek se drží stranou, potomek s nejvyšší
+    * prioritou se posouvá nahoru, dokud má vyšší prioritu než prvek.
     */
-    public void vybuduj(T[] prvky, Comparator<T> novyKomparator) {
-        this.polePrvku = Arrays.copyOfRange(prvky, 0, prvky.length);
-        this.velikost = prvky.length;
-        this.komparator = novyKomparator;
+    private void traversujDoluDirou(int index, Pocitadla pocitadlaUlohy) {
+        T prvek = polePrvku[index];
 
-        for (int i = velikost / 2 - 1; i >= 0; i--) {
-            traversujDolu(i);
+        while (true) {
+            int indexPotomka = indexNejvetsihoPotomka(index, pocitadlaUlohy);
+            if (indexPotomka < 0 || porovnej(polePrvku[indexPotomka], prvek, pocitadlaUlohy) <= 0) {
+                break;
+            }
+            nastav(index, polePrvku[indexPotomka], pocitadlaUlohy);
+            index = indexPotomka;
         }
+
+        nastav(index, prvek, pocitadlaUlohy);
     }
 
     /**
-    * Získání velikosti haldy (počet prvků).
-    * 
-    * @return Velikost haldy
+    * Procházení dolů zdola nahoru (Wegener): nejprve se bez porovnávání
+    * s prvkem sestoupí po cestě potomků s nejvyšší prioritou až k listu,
+    * potom se od listu stoupá, dokud se nenajde prvek s alespoň stejnou
+    * prioritou. Prvky na cestě nad tímto místem se posunou o úroveň výš.
+    * Prvek vložený do kořene po odebrání maxima obvykle patří až k listům,
+    * takže stoupání je krátké a porovnání je zhruba o polovinu méně.
     */
-    public int getVelikost() {
-        return this.velikost;
+    private void traversujDoluZdolaNahoru(int index, Pocitadla pocitadlaUlohy) {
+        T prvek = polePrvku[index];
+
+        int list = index;
+        for (int potomek = indexNejvetsihoPotomka(list, pocitadlaUlohy); potomek >= 0;
+                potomek = indexNejvetsihoPotomka(list, pocitadlaUlohy)) {
+            list = potomek;
+        }
+
+        while (list != index && porovnej(prvek, polePrvku[list], pocitadlaUlohy) > 0) {
+            list = indexRodice(list);
+        }
+
+        T presouvany = prvek;
+        while (list != index) {
+            T puvodni = polePrvku[list];
+            nastav(list, presouvany, pocitadlaUlohy);
+            presouvany = puvodni;
+            list = indexRodice(list);
+        }
+        nastav(index, presouvany, pocitadlaUlohy);
     }
 
     /**
-    * Reorganizace haldy s novým komparátorem.
-    * 
-    * @param novyKomparator Komparátor pro porovnávání prvků
+    * Vrátí index potomka s nejvyšší prioritou, nebo -1, pokud prvek nemá potomky.
     */
-    public void reorganizace(Comparator<T> novyKomparator) {
-        if (novyKomparator != null) {
-            this.komparator = novyKomparator;
+    private int indexNejvetsihoPotomka(int index, Pocitadla pocitadlaUlohy) {
+        int nejvyssiPriorita = indexPotomka(index, 0);
+        if (nejvyssiPriorita >= velikost) {
+            return -1;
+        }
 
-            for (int i = velikost / 2 - 1; i >= 0; i--) {
-                traversujDolu(i);
+        for (int k = 1; k < arita; k++) {
+            int potomek = indexPotomka(index, k);
+            if (potomek >= velikost) {
+                break;
+            }
+            if (porovnej(polePrvku[potomek], polePrvku[nejvyssiPriorita], pocitadlaUlohy) > 0) {
+                nejvyssiPriorita = potomek;
             }
         }
+        return nejvyssiPriorita;
     }
 
     /**
-    * Metoda pro zrušení haldy. Vyprázdní ji.
+    * Porovná dva prvky komparátorem haldy a započítá porovnání.
     */
-    public void zrus() {
-        polePrvku = null;
-        velikost = 0;
+    private int porovnej(T a, T b, Pocitadla pocitadlaUlohy) {
+        pocitadlaUlohy.porovnani++;
+        return komparator.compare(a, b);
     }
 
     /**
-    * Kontrola, zda je halda prázdná.
-    * 
-    * @return True, pokud je halda prázdná, jinak false
+    * Zapíše prvek na daný index pole a započítá přesun.
     */
-    public boolean jePrazdny() {
-        return velikost == 0;
+    private void nastav(int index, T prvek, Pocitadla pocitadlaUlohy) {
+        pocitadlaUlohy.presuny++;
+        umisti(index, prvek);
     }
-    
+
     /**
-    * Vloží prvek do haldy a provede její reorganizaci.
-    * 
-    * @param prvek Prvek, který má být vložen
+    * Zapíše prvek na daný index pole a aktualizuje jeho index v mapě klíčů.
     */
-    public void vloz(T prvek) {
-        if (velikost == polePrvku.length) {
-            zvetsiKapacitu();
+    private void umisti(int index, T prvek) {
+        polePrvku[index] = prvek;
+        if (indexyKlicu != null && !mapaPozastavena) {
+            indexyKlicu.put(klic.apply(prvek), index);
         }
+        presunut(prvek, index);
+    }
 
-        polePrvku[velikost] = prvek;
-        velikost++;
+    /**
+    * Zavolá se pokaždé, když se prvek zapíše na jiný index pole. Třídy
+    * balíčku, které nad haldou staví (např. indexovaná halda), si tak mohou
+    * udržovat pozice prvků bez mapy klíčů. Prvek vložený na konec pole se
+    * ohlásí až při svém prvním přesunu.
+    * 
+    * @param prvek Přesunutý prvek
+    * @param index Nový index prvku v poli haldy
+    */
+    void presunut(T prvek, int index) {
+    }
 
-        traversujNahoru(velikost - 1);
+    /**
+    * Zpřístupní prvek na daném indexu pole haldy.
+    * 
+    * @param index Index prvku
+    * @return Prvek na daném indexu
+    */
+    T prvekNaIndexu(int index) {
+        return polePrvku[index];
     }
 
     /**
-    * Odebere prvek s nejvyšší prioritou (maximální hodnotu) a vrátí ji, provede reorganizaci.
+    * Odebere prvek na daném indexu. Na jeho místo přesune poslední prvek
+    * haldy, který podle porovnání s rodičem probublá nahoru nebo dolů.
     * 
-    * @return Prvek s nejvyšší prioritou nebo null, pokud je halda prázdná
+    * @param index Index odebíraného prvku
+    * @return Odebraný prvek
     */
-    public T odeberMax() {
-        if (velikost == 0) {
-            return null;
+    T odeberNaIndexu(int index) {
+        T prvek = polePrvku[index];
+        if (indexyKlicu != null) {
+            indexyKlicu.remove(klic.apply(prvek));
         }
 
-        T maxPrvek = polePrvku[0];
-
-        polePrvku[0] = polePrvku[velikost - 1];
         velikost--;
+        T posledni = polePrvku[velikost];
+        polePrvku[velikost] = null;
 
-        traversujDolu(0);
+        if (index < velikost) {
+            umisti(index, posledni);
+            opravNaIndexu(index);
+        }
 
-        return maxPrvek;
+        return prvek;
     }
-    
+
     /**
-    * Zpřístupní prvek s nejvyšší prioritou.
+    * Obnoví vlastnost haldy poté, co se změnila priorita prvku na daném
+    * indexu. Prvek probublá nahoru, pokud má vyšší prioritu než jeho rodič,
+    * jinak dolů.
     * 
-    * @return Prvek s nejvyšší prioritou nebo null, pokud je halda prázdná
+    * @param index Index prvku, jehož priorita se změnila
     */
-    public T zpristupniMax() {
-        return velikost > 0 ? polePrvku[0] : null;
+    void opravNaIndexu(int index) {
+        if (index > 0 && porovnej(polePrvku[index], polePrvku[indexRodice(index)], pocitadla) > 0) {
+            traversujNahoru(index);
+        } else {
+            traversujDolu(index);
+        }
     }
-    
+
     /**
-    * Vytvoří a vrátí iterator pro procházení haldy podle zvoleného typu prohlížení.
+    * Zapíše klíč nového prvku do mapy klíčů, pokud ji halda udržuje.
     * 
-    * @param typProhl Typ prohlížení, zda do hloubky nebo do šířky
-    * @return Iterator pro procházení haldy
+    * @throws IllegalArgumentException pokud prvek se stejným klíčem už v haldě je
     */
-    public Iterator<T> vypis(eTypProhl typProhl) {
-        switch (typProhl) {
-            case HLOUBKA:
-                return new IteratorHloubka();
-            case SIRKA:
-                return new IteratorSirka();
-            default:
-                System.out.println("Neznámý typ prohlížení.");
-                return null;
+    private void zaregistrujKlic(T prvek, int index) {
+        if (indexyKlicu != null && indexyKlicu.putIfAbsent(klic.apply(prvek), index) != null) {
+            throw new IllegalArgumentException("Prvek s klíčem " + klic.apply(prvek) + " už v haldě je!");
         }
     }
 
     /**
-    * Provádí operaci „up-heapify“ (procházení nahoru) pro prvek na daném indexu.
+    * Vytvoří mapu z klíče na index pro prvních pocet prvků pole.
     * 
-    * @param index Index prvku, který má být zpracován
+    * @throws IllegalArgumentException pokud mají dva prvky stejný klíč
     */
-    private void traversujNahoru(int index) {
-        while (index > 0) {
-            int indexRodice = (index - 1) / 2;
-            if (komparator.compare(polePrvku[index], polePrvku[indexRodice]) > 0) {
-                prohod(index, indexRodice);
-                index = indexRodice;
-            } else {
-                break;
+    private HashMap<Object, Integer> vytvorMapuKlicu(T[] prvky, int pocet) {
+        HashMap<Object, Integer> mapa = new HashMap<>(Math.max(16, pocet * 4 / 3 + 1));
+        for (int i = 0; i < pocet; i++) {
+            if (mapa.putIfAbsent(klic.apply(prvky[i]), i) != null) {
+                throw new IllegalArgumentException("Prvek s klíčem " + klic.apply(prvky[i]) + " už v haldě je!");
             }
         }
+        return mapa;
     }
 
     /**
-    * Provádí operaci „down-heapify“ (procházení dolů) pro prvek na daném indexu.
+    * Vrátí index rodiče prvku na daném indexu. Pro kořen (a prázdnou haldu)
+    * vrací záporné číslo. Při rozložení po blocích je rodičem kořene bloku
+    * list bloku o úroveň výš, ostatní uzly mají rodiče ve stejném bloku.
     * 
-    * @param index Index prvku, který má být zpracován
+    * @param index Index prvku
+    * @return Index rodiče
     */
-    private void traversujDolu(int index) {
-        int nejvyssiPriorita = index;
-        int indexLevyPotomek = 2 * index + 1;
-        int indexPravyPotomek = 2 * index + 2;
+    private int indexRodice(int index) {
+        if (index <= 0) {
+            return -1;
+        }
+        if (velikostBloku == 1) {
+            return (index - 1) / arita;
+        }
+
+        int blok = index / velikostBloku;
+        int pozice = index - blok * velikostBloku;
+        if (pozice > 0) {
+            return blok * velikostBloku + (pozice - 1) / arita;
+        }
+        int poradiBloku = blok - 1; // Pořadí mezi bloky pod listy rodičovského bloku
+        int rodicovskyBlok = poradiBloku / potomkuBloku;
+        int list = poradiBloku % potomkuBloku / arita;
+        return rodicovskyBlok * velikostBloku + pocetVnitrnich + list;
+    }
 
-        if (indexLevyPotomek < velikost && komparator.compare(polePrvku[indexLevyPotomek], polePrvku[nejvyssiPriorita]) > 0) {
-            nejvyssiPriorita = indexLevyPotomek;
+    /**
+    * Vrátí index k-tého potomka prvku na daném indexu. Indexy potomků jsou
+    * vždy vyšší než index rodiče a rostou s k, takže první potomek mimo
+    * haldu znamená, že další potomci v ní také nejsou. Index, který by
+    * přetekl rozsah int, se vrátí jako Integer.MAX_VALUE.
+    * 
+    * @param index Index prvku
+    * @param k Pořadí potomka od 0 do arita - 1
+    * @return Index potomka
+    */
+    private int indexPotomka(int index, int k) {
+        long potomek;
+        if (velikostBloku == 1) {
+            potomek = (long) arita * index + 1 + k;
+        } else {
+            int blok = index / velikostBloku;
+            int pozice = index - blok * velikostBloku;
+            if (pozice < pocetVnitrnich) {
+                potomek = (long) blok * velikostBloku + (long) arita * pozice + 1 + k;
+            } else {
+                long poradiBloku = (long) blok * potomkuBloku + (long) (pozice - pocetVnitrnich) * arita + k;
+                potomek = (poradiBloku + 1) * velikostBloku;
+            }
         }
+        return (int) Math.min(potomek, Integer.MAX_VALUE);
+    }
 
-        if (indexPravyPotomek < velikost && komparator.compare(polePrvku[indexPravyPotomek], polePrvku[nejvyssiPriorita]) > 0) {
-            nejvyssiPriorita = indexPravyPotomek;
+    /**
+    * Vrátí pořadí prvku mezi potomky jeho rodiče (0 až arita - 1).
+    * 
+    * @param index Index prvku, který není kořenem
+    * @return Pořadí prvku mezi sourozenci
+    */
+    private int poradiPotomka(int index) {
+        if (velikostBloku == 1) {
+            return (index - 1) % arita;
         }
+        int blok = index / velikostBloku;
+        int pozice = index - blok * velikostBloku;
+        return pozice > 0 ? (pozice - 1) % arita : (blok - 1) % arita;
+    }
 
-        if (nejvyssiPriorita != index) {
-            prohod(index, nejvyssiPriorita);
-            traversujDolu(nejvyssiPriorita);
+    /**
+    * Vrátí nejvyšší index prvku, který má v haldě alespoň jednoho potomka,
+    * nebo -1, pokud takový není. Při rozložení po úrovních jsou všechny
+    * prvky s nižším indexem také rodiči, při rozložení po blocích se
+    * s nimi střídají listy jednotlivých bloků.
+    */
+    private int indexPoslednihoRodice() {
+        int posledni = indexRodice(velikost - 1);
+        if (velikostBloku == 1 || velikost <= velikostBloku) {
+            return posledni;
         }
+
+        // Rodiči jsou také rodič kořene posledního bloku a vnitřní uzly předchozího bloku.
+        int posledniBlok = (velikost - 1) / velikostBloku;
+        posledni = Math.max(posledni, indexRodice(posledniBlok * velikostBloku));
+        return Math.max(posledni, (posledniBlok - 1) * velikostBloku + pocetVnitrnich - 1);
     }
-    
+
+    /**
+    * Zjistí, zda má prvek na daném indexu v haldě alespoň jednoho potomka.
+    */
+    private boolean maPotomky(int index) {
+        return indexPotomka(index, 0) < velikost;
+    }
+
     /**
     * Prohodí dva prvky v poli.
     * 
     * @param i Index prvního prvku
     * @param j Index druhého prvku
+    * @param pocitadlaUlohy Počítadla, do kterých se přesuny započítají
     */
-    private void prohod(int i, int j) {
+    private void prohod(int i, int j, Pocitadla pocitadlaUlohy) {
         T tempPrvek = polePrvku[i];
-        polePrvku[i] = polePrvku[j];
-        polePrvku[j] = tempPrvek;
+        nastav(i, polePrvku[j], pocitadlaUlohy);
+        nastav(j, tempPrvek, pocitadlaUlohy);
+    }
+
+    /**
+    * Obnoví vlastnost haldy po připojení prvků na indexy od puvodniVelikost
+    * do konce haldy. Pro malou dávku probublá každý nový prvek nahoru, jinak
+    * provede „down-heapify“ jen pro předky nových prvků, a to po úrovních
+    * odspodu, stejně jako při vybudování haldy. Při rozložení po blocích
+    * netvoří předci nových prvků v poli souvislé úseky, velká dávka se proto
+    * uspořádá vybudováním celé haldy, které je také lineární.
+    * 
+    * @param puvodniVelikost Velikost haldy před připojením dávky
+    */
+    private void dokonciHromadneVlozeni(int puvodniVelikost) {
+        int pocetNovych = velikost - puvodniVelikost;
+        if (pocetNovych == 0) {
+            return;
+        }
+
+        int hloubka = 1;
+        for (long kapacitaUrovni = 1; kapacitaUrovni < velikost; kapacitaUrovni = kapacitaUrovni * arita + 1) {
+            hloubka++;
+        }
+
+        if ((long) pocetNovych * hloubka <= puvodniVelikost) {
+            for (int i = puvodniVelikost; i < velikost; i++) {
+                traversujNahoru(i);
+            }
+            return;
+        }
+        if (velikostBloku > 1) {
+            usporadej(false);
+            return;
+        }
+
+        int odIndexu = indexRodice(puvodniVelikost);
+        int doIndexu = indexRodice(velikost - 1);
+        while (doIndexu >= 0) {
+            odIndexu = Math.max(odIndexu, 0);
+            for (int i = doIndexu; i >= odIndexu; i--) {
+                traversujDolu(i);
+            }
+            if (odIndexu == 0) {
+                break;
+            }
+            odIndexu = indexRodice(odIndexu);
+            doIndexu = indexRodice(doIndexu);
+        }
+    }
+
+    /**
+    * Ověří, že má halda nastavený komparátor, bez kterého nelze prvky řadit.
+    */
+    private void zkontrolujKomparator() {
+        if (komparator == null) {
+            throw new IllegalStateException("Halda nemá nastavený komparátor, nejprve ji vybudujte!");
+        }
+    }
+
+    /**
+    * Zvětší kapacitu pole (alespoň na dvojnásobek), aby mohlo obsahovat
+    * požadovaný počet prvků.
+    * 
+    * @param pozadovanaKapacita Minimální počet prvků, které se musí do pole vejít
+    */
+    @SuppressWarnings("unchecked")
+    private void zajistiKapacitu(int pozadovanaKapacita) {
+        if (polePrvku == null) {
+            polePrvku = (T[]) new Object[Math.max(pozadovanaKapacita, 1)];
+        } else if (pozadovanaKapacita > polePrvku.length) {
+            int novaKapacita = Math.max(polePrvku.length * 2, pozadovanaKapacita);
+            polePrvku = Arrays.copyOf(polePrvku, novaKapacita);
+        }
+    }
+
+    /**
+    * Pomocná binární halda indexů do pole haldy, uspořádaná stejným
+    * komparátorem jako halda samotná. Slouží jako „hranice“ při procházení
+    * haldy podle priority bez jejího měnění: obsahuje indexy prvků, jejichž
+    * všichni předci již byli vybráni.
+    */
+    private class HraniceIndexu {
+
+        private int[] indexy;
+        private int pocet;
+
+        HraniceIndexu(int kapacita) {
+            this.indexy = new int[Math.max(kapacita, 1)];
+        }
+
+        boolean jePrazdna() {
+            return pocet == 0;
+        }
+
+        void vloz(int index) {
+            if (pocet == indexy.length) {
+                indexy = Arrays.copyOf(indexy, indexy.length * 2);
+            }
+
+            int pozice = pocet++;
+            while (pozice > 0) {
+                int rodic = (pozice - 1) / 2;
+                if (komparator.compare(polePrvku[index], polePrvku[indexy[rodic]]) <= 0) {
+                    break;
+                }
+                indexy[pozice] = indexy[rodic];
+                pozice = rodic;
+            }
+            indexy[pozice] = index;
+        }
+
+        /**
+        * Vloží na hranici všechny potomky prvku haldy na daném indexu.
+        */
+        void vlozPotomky(int index) {
+            for (int k = 0; k < arita; k++) {
+                int potomek = indexPotomka(index, k);
+                if (potomek >= velikost) {
+                    break;
+                }
+                vloz(potomek);
+            }
+        }
+
+        int odeber() {
+            int vysledek = indexy[0];
+            int posledni = indexy[--pocet];
+
+            int pozice = 0;
+            while (true) {
+                int potomek = 2 * pozice + 1;
+                if (potomek >= pocet) {
+                    break;
+                }
+                if (potomek + 1 < pocet && komparator.compare(polePrvku[indexy[potomek + 1]], polePrvku[indexy[potomek]]) > 0) {
+                    potomek++;
+                }
+                if (komparator.compare(polePrvku[indexy[potomek]], polePrvku[posledni]) <= 0) {
+                    break;
+                }
+                indexy[pozice] = indexy[potomek];
+                pozice = potomek;
+            }
+            indexy[pozice] = posledni;
+
+            return vysledek;
+        }
+    }
+
+    /**
+    * Počítadla porovnání a přesunů. Halda má jedna vlastní, každá úloha
+    * paralelního budování další, aby se do nich nezapisovalo z více vláken.
+    */
+    private static final class Pocitadla {
+
+        private long porovnani;
+        private long presuny;
+
+        /**
+        * Přičte k počítadlům hodnoty jiných počítadel.
+        */
+        void pricti(Pocitadla jina) {
+            porovnani += jina.porovnani;
+            presuny += jina.presuny;
+        }
     }
 
     /**
-    * Zdvojnásobí kapacitu pole, aby mohlo obsahovat více prvků.
+    * Úloha pro paralelní budování haldy. Podstromy potomků se uspořádají
+    * souběžně, protože procházení dolů z jejich kořenů nikdy nezasáhne mimo
+    * daný podstrom. Kořen se dorovná až po dokončení všech potomků.
+    * Porovnání a přesuny se počítají do počítadel úlohy, ke kterým se po
+    * dokončení podúloh přičtou jejich počítadla.
     */
-    private void zvetsiKapacitu() {
-        int novaKapacita = polePrvku.length * 2;
-        polePrvku = Arrays.copyOf(polePrvku, novaKapacita);
+    private class BudovaniPodstromu extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index; // Kořen budovaného podstromu
+        private final int odhadVelikosti; // Přibližný počet prvků podstromu
+        private final Pocitadla pocitadlaUlohy = new Pocitadla();
+
+        public BudovaniPodstromu(int index, int odhadVelikosti) {
+            this.index = index;
+            this.odhadVelikosti = odhadVelikosti;
+        }
+
+        @Override
+        protected void compute() {
+            if (odhadVelikosti <= PRAH_PARALELNIHO_BUDOVANI) {
+                usporadejPodstrom(index, pocitadlaUlohy);
+                return;
+            }
+
+            // Podstromy sourozenců se liší nejvýše o jednu neúplnou úroveň, odhad se dělí rovným dílem.
+            List<BudovaniPodstromu> ulohy = new ArrayList<>(arita);
+            for (int k = 0; k < arita; k++) {
+                int potomek = indexPotomka(index, k);
+                if (potomek >= velikost) {
+                    break;
+                }
+                ulohy.add(new BudovaniPodstromu(potomek, (odhadVelikosti - 1) / arita));
+            }
+            invokeAll(ulohy);
+            for (BudovaniPodstromu uloha : ulohy) {
+                pocitadlaUlohy.pricti(uloha.pocitadlaUlohy);
+            }
+
+            traversujDolu(index, pocitadlaUlohy);
+        }
     }
 
     /**
@@ -215,13 +1494,10 @@ public class AbstrHeap<T> {
     */
     private class IteratorHloubka implements Iterator<T> {
 
-        private final IAbstrLifo<Integer> zasobnik = new AbstrLifo<>();
+        private int aktualniIndex; // Index prvku, který bude vrácen, -1 na konci
 
         public IteratorHloubka() {
-            if (velikost != 0) {
-                // Vloží kořenový prvek do zásobníku.
-                zasobnik.vloz(0);
-            }
+            aktualniIndex = velikost != 0 ? 0 : -1;
         }
 
         /**
@@ -231,12 +1507,14 @@ public class AbstrHeap<T> {
         */
         @Override
         public boolean hasNext() {
-            return !zasobnik.jePrazdny();
+            return aktualniIndex >= 0;
         }
 
         /**
         * Metoda vrátí následující prvek v iteraci. Tento prvek je vybrán podle 
-        * pořadí procházení do hloubky (preorder traversal).
+        * pořadí procházení do hloubky (preorder traversal). Následník se
+        * dopočítá z indexu: první potomek, pokud existuje, jinak další
+        * sourozenec nejbližšího předka, který ještě nějakého má.
         * 
         * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
         */
@@ -246,36 +1524,93 @@ public class AbstrHeap<T> {
                 return null;
             }
 
-            int aktualniIndex = zasobnik.odeber();
             T vysledek = polePrvku[aktualniIndex];
 
-            int levyPotomekIndex = 2 * aktualniIndex + 1;
-            int pravyPotomekIndex = 2 * aktualniIndex + 2;
-
-            if (pravyPotomekIndex < velikost) {
-                zasobnik.vloz(pravyPotomekIndex);
+            int prvniPotomekIndex = indexPotomka(aktualniIndex, 0);
+            if (prvniPotomekIndex < velikost) {
+                aktualniIndex = prvniPotomekIndex;
+                return vysledek;
             }
 
-            if (levyPotomekIndex < velikost) {
-                zasobnik.vloz(levyPotomekIndex);
+            // Stoupá se, dokud je prvek posledním sourozencem nebo jeho další sourozenec neexistuje.
+            int index = aktualniIndex;
+            while (index > 0) {
+                int poradi = poradiPotomka(index);
+                int indexRodice = indexRodice(index);
+                if (poradi < arita - 1) {
+                    int sourozenec = indexPotomka(indexRodice, poradi + 1);
+                    if (sourozenec < velikost) {
+                        aktualniIndex = sourozenec;
+                        return vysledek;
+                    }
+                }
+                index = indexRodice;
             }
+            aktualniIndex = -1;
+
             return vysledek;
         }
     }
     
+    /**
+    * Iterator pro procházení haldy podle priority. Prvky vrací líně, každý
+    * další vybírá z hranice indexů, která obsahuje potomky již vrácených
+    * prvků. Zpřístupnění prvních k prvků tak stojí O(k log k) a pole haldy
+    * zůstává nezměněné.
+    */
+    private class IteratorPriorita implements Iterator<T> {
+
+        private final HraniceIndexu hranice = new HraniceIndexu(arita);
+
+        public IteratorPriorita() {
+            if (velikost != 0) {
+                hranice.vloz(0);
+            }
+        }
+
+        /**
+        * Metoda zjišťuje, zda existuje další prvek k procházení.
+        * 
+        * @return True, pokud existuje další prvek, jinak False
+        */
+        @Override
+        public boolean hasNext() {
+            return !hranice.jePrazdna();
+        }
+
+        /**
+        * Metoda vrátí prvek s nejvyšší prioritou, který ještě nebyl vrácen.
+        * 
+        * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
+        */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            int aktualniIndex = hranice.odeber();
+            hranice.vlozPotomky(aktualniIndex);
+
+            return polePrvku[aktualniIndex];
+        }
+    }
+
     /**
     * Iterator pro procházení haldy do šířky (level-order traversal).
     */
     private class IteratorSirka implements Iterator<T> {
 
-        private final IAbstrFifo<Integer> fronta = new AbstrFifo<>();
+        private int aktualniIndex; // Při rozložení po úrovních index dalšího prvku
+        private int[] fronta; // Při rozložení po blocích kruhová fronta indexů, jinak null
+        private int zacatekFronty;
+        private int pocetVeFronte;
 
         public IteratorSirka() {
-            if (velikost != 0) {
-                for (int i = 0; i < velikost; i++) {
-                    // Přidá všechny indexy prvků haldy do fronty pro procházení do šířky
-                    fronta.vloz(i);
-                }
+            if (velikostBloku > 1 && velikost != 0) {
+                fronta = new int[Math.max(16, arita)];
+                fronta[0] = 0;
+                pocetVeFronte = 1;
             }
         }
 
@@ -286,12 +1621,14 @@ public class AbstrHeap<T> {
         */
         @Override
         public boolean hasNext() {
-            return !fronta.jePrazdny();
+            return fronta == null ? aktualniIndex < velikost : pocetVeFronte > 0;
         }
 
         /**
         * Metoda vrátí následující prvek v iteraci. Tento prvek je vrácen podle
-        * pořadí procházení do šířky (level-order traversal).
+        * pořadí procházení do šířky (level-order traversal), které v poli
+        * haldy rozložené po úrovních odpovídá prostému pořadí indexů. Při
+        * rozložení po blocích se indexy dalších prvků řadí do fronty.
         * 
         * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
         */
@@ -300,11 +1637,32 @@ public class AbstrHeap<T> {
             if (!hasNext()) {
                 return null;
             }
+            if (fronta == null) {
+                return polePrvku[aktualniIndex++];
+            }
 
-            int aktualniIndex = fronta.odeber();
-            T vysledek = polePrvku[aktualniIndex];
+            int index = fronta[zacatekFronty];
+            zacatekFronty = (zacatekFronty + 1) % fronta.length;
+            pocetVeFronte--;
 
-            return vysledek;
+            for (int k = 0; k < arita; k++) {
+                int potomek = indexPotomka(index, k);
+                if (potomek >= velikost) {
+                    break;
+                }
+                if (pocetVeFronte == fronta.length) {
+                    int[] vetsi = new int[fronta.length * 2];
+                    for (int i = 0; i < pocetVeFronte; i++) {
+                        vetsi[i] = fronta[(zacatekFronty + i) % fronta.length];
+                    }
+                    fronta = vetsi;
+                    zacatekFronty = 0;
+                }
+                fronta[(zacatekFronty + pocetVeFronte) % fronta.length] = potomek;
+                pocetVeFronte++;
+            }
+
+            return polePrvku[index];
         }
     }
 }
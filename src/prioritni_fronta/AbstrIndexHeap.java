@@ -0,0 +1,269 @@
+package prioritni_fronta;
+
+import enumy.eTypProhl;
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+* Indexovaná halda, která ke každému vloženému prvku vrací úchyt. Přes úchyt
+* lze prvku změnit prioritu nebo jej z haldy odebrat v čase O(log n), aniž by
+* bylo nutné haldu celou reorganizovat. Úchyty jsou uloženy v haldě
+* AbstrHeap, která jim při každém přesunu v poli aktualizuje pozici, takže
+* procházení haldou i výpis sdílí s ostatními haldami jednu implementaci.
+*
+* @param <T> Typ prvků v haldě
+*/
+public class AbstrIndexHeap<T> {
+
+    private static final int VYCHOZI_ARITA = 2;
+
+    private final HaldaUchytu<T> halda;
+
+    /**
+    * Úchyt prvku vloženého do indexované haldy. Pamatuje si aktuální pozici
+    * prvku v poli haldy, pokud byl prvek z haldy již odebrán, je index záporný.
+    *
+    * @param <T> Typ prvku
+    */
+    public static final class Uchyt<T> {
+
+        private T prvek; // Prvek, na který úchyt odkazuje
+        private int index; // Aktuální index prvku v poli haldy
+
+        private Uchyt(T prvek, int index) {
+            this.prvek = prvek;
+            this.index = index;
+        }
+
+        public T getPrvek() {
+            return prvek;
+        }
+
+        /**
+        * Zjistí, zda je prvek úchytu stále v haldě.
+        *
+        * @return True, pokud prvek v haldě stále je, jinak false
+        */
+        public boolean jePlatny() {
+            return index >= 0;
+        }
+    }
+
+    /**
+    * Halda úchytů, která při každém přesunu úchytu v poli zapíše jeho nový
+    * index do úchytu.
+    */
+    private static final class HaldaUchytu<T> extends AbstrHeap<Uchyt<T>> {
+
+        HaldaUchytu(Comparator<T> komparator, int arita) {
+            super(podlePrvku(komparator), arita);
+        }
+
+        @Override
+        void presunut(Uchyt<T> uchyt, int index) {
+            uchyt.index = index;
+        }
+    }
+
+    public AbstrIndexHeap(Comparator<T> komparator) {
+        this(komparator, VYCHOZI_ARITA);
+    }
+
+    /**
+    * Vytvoří prázdnou indexovanou d-ární haldu.
+    *
+    * @param komparator Komparátor pro porovnávání prvků
+    * @param arita Počet potomků každého uzlu (alespoň 2)
+    * @throws IllegalArgumentException pokud je arita menší než 2
+    */
+    public AbstrIndexHeap(Comparator<T> komparator, int arita) {
+        this.halda = new HaldaUchytu<>(komparator, arita);
+    }
+
+    /**
+    * Získání velikosti haldy (počet prvků).
+    *
+    * @return Velikost haldy
+    */
+    public int getVelikost() {
+        return halda.getVelikost();
+    }
+
+    /**
+    * Kontrola, zda je halda prázdná.
+    *
+    * @return True, pokud je halda prázdná, jinak false
+    */
+    public boolean jePrazdny() {
+        return halda.jePrazdny();
+    }
+
+    /**
+    * Vyprázdní haldu. Všechny dosud vydané úchyty přestanou být platné.
+    */
+    public void zrus() {
+        halda.stream().forEach(uchyt -> uchyt.index = -1);
+        halda.zrus();
+    }
+
+    /**
+    * Reorganizace haldy s novým komparátorem. Vydané úchyty zůstávají platné.
+    *
+    * @param novyKomparator Komparátor pro porovnávání prvků
+    */
+    public void reorganizace(Comparator<T> novyKomparator) {
+        if (novyKomparator != null) {
+            halda.reorganizace(podlePrvku(novyKomparator));
+        }
+    }
+
+    /**
+    * Vloží prvek do haldy.
+    *
+    * @param prvek Prvek, který má být vložen
+    * @return Úchyt vloženého prvku
+    */
+    public Uchyt<T> vloz(T prvek) {
+        Uchyt<T> uchyt = new Uchyt<>(prvek, halda.getVelikost());
+        halda.vloz(uchyt);
+        return uchyt;
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou a vrátí jej.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je halda prázdná
+    */
+    public T odeberMax() {
+        Uchyt<T> uchyt = halda.odeberMax();
+        if (uchyt == null) {
+            return null;
+        }
+        uchyt.index = -1;
+        return uchyt.prvek;
+    }
+
+    /**
+    * Zpřístupní prvek s nejvyšší prioritou.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je halda prázdná
+    */
+    public T zpristupniMax() {
+        Uchyt<T> uchyt = halda.zpristupniMax();
+        return uchyt != null ? uchyt.prvek : null;
+    }
+
+    /**
+    * Zpřístupní úchyt prvku s nejvyšší prioritou.
+    *
+    * @return Úchyt prvku s nejvyšší prioritou nebo null, pokud je halda prázdná
+    */
+    public Uchyt<T> zpristupniMaxUchyt() {
+        return halda.zpristupniMax();
+    }
+
+    /**
+    * Odebere z haldy prvek daného úchytu.
+    *
+    * @param uchyt Úchyt odebíraného prvku
+    * @return Odebraný prvek
+    * @throws IllegalArgumentException pokud úchyt do haldy nepatří
+    */
+    public T odeber(Uchyt<T> uchyt) {
+        halda.odeberNaIndexu(overUchyt(uchyt));
+        uchyt.index = -1;
+        return uchyt.prvek;
+    }
+
+    /**
+    * Obnoví pozici prvku v haldě poté, co se změnila jeho priorita (např.
+    * počet osob obce). Prvek se podle potřeby posune nahoru nebo dolů.
+    *
+    * @param uchyt Úchyt prvku, jehož priorita se změnila
+    * @throws IllegalArgumentException pokud úchyt do haldy nepatří
+    */
+    public void zmenPrioritu(Uchyt<T> uchyt) {
+        halda.opravNaIndexu(overUchyt(uchyt));
+    }
+
+    /**
+    * Nahradí prvek úchytu novým prvkem a obnoví jeho pozici v haldě.
+    *
+    * @param uchyt Úchyt prvku, který má být nahrazen
+    * @param novyPrvek Nový prvek
+    * @throws IllegalArgumentException pokud úchyt do haldy nepatří
+    */
+    public void zmenPrioritu(Uchyt<T> uchyt, T novyPrvek) {
+        overUchyt(uchyt);
+        uchyt.prvek = novyPrvek;
+        zmenPrioritu(uchyt);
+    }
+
+    /**
+    * Vytvoří a vrátí iterator pro procházení haldy podle zvoleného typu
+    * prohlížení. Procházení zajišťuje halda úchytů, iterator z úchytů jen
+    * vybírá jejich prvky.
+    *
+    * @param typProhl Typ prohlížení, zda do hloubky, do šířky nebo podle priority
+    * @return Iterator pro procházení haldy
+    */
+    public Iterator<T> vypis(eTypProhl typProhl) {
+        Iterator<Uchyt<T>> uchyty = halda.vypis(typProhl);
+        return uchyty != null ? new IteratorPrvku<>(uchyty) : null;
+    }
+
+    /**
+    * Ověří, že úchyt patří do této haldy, a vrátí aktuální index jeho prvku.
+    *
+    * @param uchyt Ověřovaný úchyt
+    * @return Index prvku úchytu v poli haldy
+    */
+    private int overUchyt(Uchyt<T> uchyt) {
+        if (uchyt == null || uchyt.index < 0 || uchyt.index >= halda.getVelikost()
+                || halda.prvekNaIndexu(uchyt.index) != uchyt) {
+            throw new IllegalArgumentException("Úchyt nepatří do této haldy!");
+        }
+        return uchyt.index;
+    }
+
+    /**
+    * Vytvoří komparátor úchytů, který porovnává jejich prvky.
+    */
+    private static <T> Comparator<Uchyt<T>> podlePrvku(Comparator<T> komparator) {
+        return (a, b) -> komparator.compare(a.prvek, b.prvek);
+    }
+
+    /**
+    * Iterator, který prochází úchyty v pořadí iteratoru haldy úchytů a vrací
+    * jejich prvky.
+    */
+    private static final class IteratorPrvku<T> implements Iterator<T> {
+
+        private final Iterator<Uchyt<T>> uchyty;
+
+        IteratorPrvku(Iterator<Uchyt<T>> uchyty) {
+            this.uchyty = uchyty;
+        }
+
+        /**
+        * Metoda zjišťuje, zda existuje další prvek k procházení.
+        *
+        * @return True, pokud existuje další prvek, jinak False
+        */
+        @Override
+        public boolean hasNext() {
+            return uchyty.hasNext();
+        }
+
+        /**
+        * Metoda vrátí prvek následujícího úchytu v iteraci.
+        *
+        * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
+        */
+        @Override
+        public T next() {
+            Uchyt<T> uchyt = uchyty.next();
+            return uchyt != null ? uchyt.prvek : null;
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package prioritni_fronta;
+
+import enumy.eTypProhl;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+import rozhrani.IAbstrHeap;
+
+/**
+* Halda specializovaná na celočíselný klíč priority (např. počet osob obce).
+* Klíč se z prvku vypočítá jednou při vložení a ukládá se do paralelního pole
+* long[] vedle pole prvků. Porovnávání při procházení haldou tak pracuje přímo
+* s primitivními hodnotami bez volání komparátoru a bez čtení polí prvků.
+*
+* <p>Klíč se prvku nepřepočítává, pokud se hodnota v prvku po vložení změní,
+* je nutné prvek odebrat a vložit znovu.
+*
+* <p>Ve stabilním režimu se prvky se stejným klíčem odebírají v pořadí
+* vložení. Každý prvek dostane při vložení pořadové číslo a do pole klíčů se
+* ukládá jediné číslo long: klíč v horních 32 bitech a doplněk pořadového
+* čísla v dolních 32 bitech. Dřívější vložení tak má při shodě klíčů vyšší
+* hodnotu a porovnání zůstává jediným porovnáním primitivních hodnot.
+* V nestabilním režimu jsou dolní bity nulové a pořadí prvků se stejným
+* klíčem není určeno.
+*
+* @param <T> Typ prvků v haldě
+*/
+public class AbstrIntKeyHeap<T> implements IAbstrHeap<T> {
+
+    private static final int VYCHOZI_ARITA = 2;
+    private static final int VYCHOZI_KAPACITA = 16;
+    private static final long MAX_PORADI = 0xFFFFFFFFL; // Dolních 32 bitů zabaleného klíče
+
+    private Object[] polePrvku;
+    private long[] klice; // Zabalený klíč prvku na stejném indexu v polePrvku
+    private int velikost;
+    private final ToIntFunction<? super T> klic;
+    private final int arita; // Počet potomků každého uzlu (2 = binární halda)
+    private final boolean stabilni;
+    private long poradi; // Pořadové číslo příštího vloženého prvku ve stabilním režimu
+
+    public AbstrIntKeyHeap(ToIntFunction<? super T> klic) {
+        this(klic, VYCHOZI_ARITA);
+    }
+
+    public AbstrIntKeyHeap(ToIntFunction<? super T> klic, int arita) {
+        this(klic, arita, false);
+    }
+
+    /**
+    * Vytvoří prázdnou d-ární haldu řazenou podle celočíselného klíče.
+    *
+    * @param klic Funkce, která z prvku získá jeho prioritu
+    * @param arita Počet potomků každého uzlu (alespoň 2)
+    * @param stabilni True, pokud se prvky se stejným klíčem mají odebírat
+    * v pořadí vložení
+    * @throws IllegalArgumentException pokud je arita menší než 2
+    */
+    public AbstrIntKeyHeap(ToIntFunction<? super T> klic, int arita, boolean stabilni) {
+        if (arita < 2) {
+            throw new IllegalArgumentException("Arita haldy musí být alespoň 2!");
+        }
+        this.klic = klic;
+        this.arita = arita;
+        this.stabilni = stabilni;
+        this.polePrvku = new Object[VYCHOZI_KAPACITA];
+        this.klice = new long[VYCHOZI_KAPACITA];
+    }
+
+    public boolean jeStabilni() {
+        return stabilni;
+    }
+
+    /**
+    * Metoda pro vybudování haldy z daného pole prvků. Původní obsah haldy
+    * se zahodí. Ve stabilním režimu se prvky se stejným klíčem odebírají
+    * v pořadí, v jakém jsou v poli.
+    *
+    * @param prvky Pole prvků, které budou tvořit haldu
+    */
+    public void vybuduj(T[] prvky) {
+        int kapacita = Math.max(prvky.length, VYCHOZI_KAPACITA);
+        this.polePrvku = Arrays.copyOf(prvky, kapacita, Object[].class);
+        this.klice = new long[kapacita];
+        this.velikost = prvky.length;
+        this.poradi = 0;
+
+        for (int i = 0; i < velikost; i++) {
+            klice[i] = zabalKlic(prvky[i]);
+        }
+
+        for (int i = indexRodice(velikost - 1); i >= 0; i--) {
+            traversujDolu(i);
+        }
+    }
+
+    @Override
+    public int getVelikost() {
+        return velikost;
+    }
+
+    @Override
+    public boolean jePrazdny() {
+        return velikost == 0;
+    }
+
+    /**
+    * Metoda pro zrušení haldy. Vyprázdní ji.
+    */
+    @Override
+    public void zrus() {
+        Arrays.fill(polePrvku, 0, velikost, null);
+        velikost = 0;
+        poradi = 0;
+    }
+
+    /**
+    * Vloží prvek do haldy a provede její reorganizaci.
+    *
+    * @param prvek Prvek, který má být vložen
+    */
+    @Override
+    public void vloz(T prvek) {
+        if (velikost == polePrvku.length) {
+            zvetsiKapacitu();
+        }
+
+        if (stabilni && poradi > MAX_PORADI) {
+            precislujPoradi();
+        }
+
+        polePrvku[velikost] = prvek;
+        klice[velikost] = zabalKlic(prvek);
+        velikost++;
+
+        traversujNahoru(velikost - 1);
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou (maximálním klíčem) a vrátí jej.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je halda prázdná
+    */
+    @Override
+    public T odeberMax() {
+        if (velikost == 0) {
+            return null;
+        }
+
+        T maxPrvek = prvek(0);
+        velikost--;
+
+        polePrvku[0] = polePrvku[velikost];
+        klice[0] = klice[velikost];
+        polePrvku[velikost] = null;
+
+        traversujDolu(0);
+
+        return maxPrvek;
+    }
+
+    /**
+    * Zpřístupní prvek s nejvyšší prioritou.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je halda prázdná
+    */
+    @Override
+    public T zpristupniMax() {
+        return velikost > 0 ? prvek(0) : null;
+    }
+
+    /**
+    * Zpřístupní klíč prvku s nejvyšší prioritou.
+    *
+    * @return Nejvyšší klíč v haldě
+    * @throws NoSuchElementException pokud je halda prázdná
+    */
+    public int zpristupniMaxKlic() {
+        if (velikost == 0) {
+            throw new NoSuchElementException("Halda je prázdná!");
+        }
+        return (int) (klice[0] >> 32);
+    }
+
+    /**
+    * Vytvoří a vrátí iterator pro procházení haldy podle zvoleného typu prohlížení.
+    *
+    * @param typProhl Typ prohlížení, zda do hloubky, do šířky nebo podle priority
+    * @return Iterator pro procházení haldy
+    */
+    public Iterator<T> vypis(eTypProhl typProhl) {
+        switch (typProhl) {
+            case HLOUBKA:
+                return new IteratorHloubka();
+            case SIRKA:
+                return new IteratorSirka();
+            case PRIORITA:
+                return new IteratorPriorita();
+            default:
+                System.out.println("Neznámý typ prohlížení.");
+                return null;
+        }
+    }
+
+    /**
+    * Provádí operaci „up-heapify“ pro prvek na daném indexu. Prvek se drží
+    * mimo pole a rodiče se posouvají dolů do uvolněného místa.
+    *
+    * @param index Index prvku, který má být zpracován
+    */
+    private void traversujNahoru(int index) {
+        Object prvek = polePrvku[index];
+        long klicPrvku = klice[index];
+
+        while (index > 0) {
+            int indexRodice = indexRodice(index);
+            if (klicPrvku <= klice[indexRodice]) {
+                break;
+            }
+            polePrvku[index] = polePrvku[indexRodice];
+            klice[index] = klice[indexRodice];
+            index = indexRodice;
+        }
+
+        polePrvku[index] = prvek;
+        klice[index] = klicPrvku;
+    }
+
+    /**
+    * Provádí operaci „down-heapify“ pro prvek na daném indexu. Prvek se drží
+    * mimo pole a největší potomci se posouvají nahoru do uvolněného místa.
+    *
+    * @param index Index prvku, který má být zpracován
+    */
+    private void traversujDolu(int index) {
+        Object prvek = polePrvku[index];
+        long klicPrvku = klice[index];
+
+        while (true) {
+            int indexPrvniPotomek = arita * index + 1;
+            if (indexPrvniPotomek >= velikost) {
+                break;
+            }
+            int indexPosledniPotomek = Math.min(indexPrvniPotomek + arita, velikost);
+
+            int nejvyssiPriorita = indexPrvniPotomek;
+            for (int i = indexPrvniPotomek + 1; i < indexPosledniPotomek; i++) {
+                if (klice[i] > klice[nejvyssiPriorita]) {
+                    nejvyssiPriorita = i;
+                }
+            }
+
+            if (klice[nejvyssiPriorita] <= klicPrvku) {
+                break;
+            }
+            polePrvku[index] = polePrvku[nejvyssiPriorita];
+            klice[index] = klice[nejvyssiPriorita];
+            index = nejvyssiPriorita;
+        }
+
+        polePrvku[index] = prvek;
+        klice[index] = klicPrvku;
+    }
+
+    /**
+    * Vypočítá zabalený klíč prvku. Ve stabilním režimu mu zároveň přidělí
+    * další pořadové číslo.
+    */
+    private long zabalKlic(T prvek) {
+        long zabaleny = (long) klic.applyAsInt(prvek) << 32;
+        if (stabilni) {
+            zabaleny |= MAX_PORADI - poradi++;
+        }
+        return zabaleny;
+    }
+
+    /**
+    * Po vyčerpání 32bitových pořadových čísel přečísluje prvky v haldě
+    * od nuly. Zachová přitom vzájemné pořadí dolních bitů všech prvků,
+    * porovnání mezi prvky se tedy nezmění a halda zůstává uspořádaná.
+    */
+    private void precislujPoradi() {
+        long[] dolni = new long[velikost];
+        for (int i = 0; i < velikost; i++) {
+            dolni[i] = klice[i] & MAX_PORADI;
+        }
+        Arrays.sort(dolni);
+
+        for (int i = 0; i < velikost; i++) {
+            int umisteni = Arrays.binarySearch(dolni, klice[i] & MAX_PORADI);
+            klice[i] = (klice[i] & ~MAX_PORADI) | (MAX_PORADI - (velikost - 1 - umisteni));
+        }
+        poradi = velikost;
+    }
+
+    private int indexRodice(int index) {
+        return index > 0 ? (index - 1) / arita : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T prvek(int index) {
+        return (T) polePrvku[index];
+    }
+
+    /**
+    * Zdvojnásobí kapacitu obou polí, aby mohla obsahovat více prvků.
+    */
+    private void zvetsiKapacitu() {
+        int novaKapacita = Math.max(polePrvku.length * 2, VYCHOZI_KAPACITA);
+        polePrvku = Arrays.copyOf(polePrvku, novaKapacita);
+        klice = Arrays.copyOf(klice, novaKapacita);
+    }
+
+    /**
+    * Iterator pro procházení haldy do hloubky (preorder traversal).
+    */
+    private class IteratorHloubka implements Iterator<T> {
+
+        private int[] zasobnik = new int[VYCHOZI_KAPACITA];
+        private int vrchol;
+
+        public IteratorHloubka() {
+            if (velikost != 0) {
+                zasobnik[vrchol++] = 0;
+            }
+        }
+
+        /**
+        * Metoda zjišťuje, zda existuje další prvek k procházení.
+        *
+        * @return True, pokud existuje další prvek, jinak False
+        */
+        @Override
+        public boolean hasNext() {
+            return vrchol > 0;
+        }
+
+        /**
+        * Metoda vrátí následující prvek v pořadí procházení do hloubky.
+        * Potomci vráceného prvku se uloží na zásobník v opačném pořadí,
+        * aby se procházeli zleva.
+        *
+        * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
+        */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            int aktualniIndex = zasobnik[--vrchol];
+            int prvniPotomekIndex = arita * aktualniIndex + 1;
+            int posledniPotomekIndex = Math.min(prvniPotomekIndex + arita, velikost) - 1;
+
+            for (int i = posledniPotomekIndex; i >= prvniPotomekIndex; i--) {
+                if (vrchol == zasobnik.length) {
+                    zasobnik = Arrays.copyOf(zasobnik, zasobnik.length * 2);
+                }
+                zasobnik[vrchol++] = i;
+            }
+            return prvek(aktualniIndex);
+        }
+    }
+
+    /**
+    * Iterator pro procházení haldy do šířky (level-order traversal).
+    */
+    private class IteratorSirka implements Iterator<T> {
+
+        private int aktualniIndex;
+
+        /**
+        * Metoda zjišťuje, zda existuje další prvek k procházení.
+        *
+        * @return True, pokud existuje další prvek, jinak False
+        */
+        @Override
+        public boolean hasNext() {
+            return aktualniIndex < velikost;
+        }
+
+        /**
+        * Metoda vrátí následující prvek v pořadí procházení do šířky, které
+        * v poli haldy odpovídá prostému pořadí indexů.
+        *
+        * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
+        */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+            return prvek(aktualniIndex++);
+        }
+    }
+
+    /**
+    * Iterator pro procházení haldy podle priority, aniž by se halda měnila.
+    * Pomocná halda indexů řazená podle pole klíčů obsahuje potomky již vrácených prvků, zpřístupnění
+    * prvních k prvků tak stojí O(k log k).
+    */
+    private class IteratorPriorita implements Iterator<T> {
+
+        private final AbstrHeap<Integer> hranice = new AbstrHeap<>((a, b) -> Long.compare(klice[a], klice[b]));
+
+        public IteratorPriorita() {
+            if (velikost != 0) {
+                hranice.vloz(0);
+            }
+        }
+
+        /**
+        * Metoda zjišťuje, zda existuje další prvek k procházení.
+        *
+        * @return True, pokud existuje další prvek, jinak False
+        */
+        @Override
+        public boolean hasNext() {
+            return !hranice.jePrazdny();
+        }
+
+        /**
+        * Metoda vrátí prvek s nejvyšším klíčem, který ještě nebyl vrácen,
+        * a na hranici přidá jeho potomky.
+        *
+        * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
+        */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            int aktualniIndex = hranice.odeberMax();
+            int prvniPotomekIndex = arita * aktualniIndex + 1;
+            int posledniPotomekIndex = Math.min(prvniPotomekIndex + arita, velikost);
+            for (int i = prvniPotomekIndex; i < posledniPotomekIndex; i++) {
+                hranice.vloz(i);
+            }
+            return prvek(aktualniIndex);
+        }
+    }
+}
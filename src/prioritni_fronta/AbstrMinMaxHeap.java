@@ -0,0 +1,459 @@
+package prioritni_fronta;
+
+import enumy.eTypProhl;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import rozhrani.IAbstrHeap;
+
+/**
+* Oboustranná prioritní fronta (min-max halda). V jednom poli se střídají
+* úrovně minim a maxim: prvek na sudé úrovni (kořen má úroveň 0) je menší
+* nebo roven všem prvkům svého podstromu, prvek na liché úrovni je větší
+* nebo roven všem prvkům svého podstromu. Minimum je tedy v kořeni a maximum
+* v jednom z jeho potomků. Vložení i odebrání minima nebo maxima stojí
+* O(log n), zpřístupnění obou konců O(1).
+*
+* <p>V omezeném režimu fronta uchovává nejvýše daný počet prvků s nejvyšší
+* prioritou, při přeplnění vytlačuje prvek s nejnižší prioritou z kořene.
+*
+* @param <T> Typ prvků ve frontě
+*/
+public class AbstrMinMaxHeap<T> implements IAbstrHeap<T> {
+
+    private static final int VYCHOZI_KAPACITA = 16;
+    private static final int NEOMEZENA = -1;
+
+    private Object[] polePrvku = new Object[VYCHOZI_KAPACITA];
+    private int velikost;
+    private final Comparator<T> komparator;
+    private final int kapacita; // Nejvyšší počet prvků nebo NEOMEZENA
+
+    public AbstrMinMaxHeap(Comparator<T> komparator) {
+        this.komparator = komparator;
+        this.kapacita = NEOMEZENA;
+    }
+
+    /**
+    * Vytvoří omezenou frontu, která uchovává nejvýše daný počet prvků
+    * s nejvyšší prioritou.
+    *
+    * @param komparator Komparátor pro porovnávání prvků (vyšší = větší priorita)
+    * @param kapacita Nejvyšší počet uchovávaných prvků
+    * @throws IllegalArgumentException pokud kapacita není kladná
+    */
+    public AbstrMinMaxHeap(Comparator<T> komparator, int kapacita) {
+        if (kapacita <= 0) {
+            throw new IllegalArgumentException("Kapacita fronty musí být kladná!");
+        }
+        this.komparator = komparator;
+        this.kapacita = kapacita;
+    }
+
+    public boolean jeOmezena() {
+        return kapacita != NEOMEZENA;
+    }
+
+    public int getKapacita() {
+        return kapacita;
+    }
+
+    @Override
+    public int getVelikost() {
+        return velikost;
+    }
+
+    @Override
+    public boolean jePrazdny() {
+        return velikost == 0;
+    }
+
+    /**
+    * Metoda pro zrušení haldy. Vyprázdní ji.
+    */
+    @Override
+    public void zrus() {
+        Arrays.fill(polePrvku, 0, velikost, null);
+        velikost = 0;
+    }
+
+    /**
+    * Vloží prvek do fronty. V omezeném režimu při plné frontě vytlačí prvek
+    * s nejnižší prioritou, případně zahodí samotný vkládaný prvek.
+    *
+    * @param prvek Prvek, který má být vložen
+    */
+    @Override
+    public void vloz(T prvek) {
+        vlozSVytlacenim(prvek);
+    }
+
+    /**
+    * Vloží prvek do fronty. Dokud není omezená fronta plná, prvek se vždy
+    * vloží, jinak vytlačí prvek s nejnižší prioritou, pokud má vyšší prioritu
+    * než on.
+    *
+    * @param prvek Prvek, který má být vložen
+    * @return Prvek, který ve frontě nezůstal (vytlačený nebo sám vkládaný),
+    *         nebo null, pokud fronta nebyla plná
+    */
+    public T vlozSVytlacenim(T prvek) {
+        if (velikost == kapacita) {
+            if (komparator.compare(prvek, prvek(0)) <= 0) {
+                return prvek;
+            }
+            T vytlaceny = prvek(0);
+            polePrvku[0] = prvek;
+            traversujDolu(0);
+            return vytlaceny;
+        }
+
+        if (velikost == polePrvku.length) {
+            polePrvku = Arrays.copyOf(polePrvku, polePrvku.length * 2);
+        }
+        polePrvku[velikost] = prvek;
+        velikost++;
+        traversujNahoru(velikost - 1);
+
+        return null;
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou a vrátí jej.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T odeberMax() {
+        return velikost > 0 ? odeberNaIndexu(indexMaxima()) : null;
+    }
+
+    /**
+    * Odebere prvek s nejnižší prioritou a vrátí jej.
+    *
+    * @return Prvek s nejnižší prioritou nebo null, pokud je fronta prázdná
+    */
+    public T odeberMin() {
+        return velikost > 0 ? odeberNaIndexu(0) : null;
+    }
+
+    /**
+    * Zpřístupní prvek s nejvyšší prioritou.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T zpristupniMax() {
+        return velikost > 0 ? prvek(indexMaxima()) : null;
+    }
+
+    /**
+    * Zpřístupní prvek s nejnižší prioritou.
+    *
+    * @return Prvek s nejnižší prioritou nebo null, pokud je fronta prázdná
+    */
+    public T zpristupniMin() {
+        return velikost > 0 ? prvek(0) : null;
+    }
+
+    /**
+    * Vytvoří a vrátí iterator pro procházení haldy podle zvoleného typu prohlížení.
+    *
+    * @param typProhl Typ prohlížení, zda do hloubky, do šířky nebo podle priority
+    * @return Iterator pro procházení haldy
+    */
+    public Iterator<T> vypis(eTypProhl typProhl) {
+        switch (typProhl) {
+            case HLOUBKA:
+                return new IteratorHloubka();
+            case SIRKA:
+                return new IteratorSirka();
+            case PRIORITA:
+                return new IteratorPriorita();
+            default:
+                System.out.println("Neznámý typ prohlížení.");
+                return null;
+        }
+    }
+
+    /**
+    * Vrátí index maxima, které leží v kořeni, je-li jediným prvkem, nebo
+    * v jednom z jeho potomků.
+    */
+    private int indexMaxima() {
+        if (velikost == 1) {
+            return 0;
+        }
+        if (velikost == 2 || komparator.compare(prvek(1), prvek(2)) >= 0) {
+            return 1;
+        }
+        return 2;
+    }
+
+    /**
+    * Odebere prvek na daném indexu, na jeho místo přesune poslední prvek
+    * haldy a obnoví uspořádání. Používá se jen pro minimum a maximum, jejichž
+    * nahrazení posledním prvkem nikdy nevyžaduje procházení nahoru.
+    */
+    private T odeberNaIndexu(int index) {
+        T prvek = prvek(index);
+        velikost--;
+
+        polePrvku[index] = polePrvku[velikost];
+        polePrvku[velikost] = null;
+        if (index < velikost) {
+            traversujDolu(index);
+        }
+
+        return prvek;
+    }
+
+    /**
+    * Zjistí, zda index leží na úrovni minim (sudá hloubka).
+    */
+    private static boolean jeUrovenMinim(int index) {
+        return ((31 - Integer.numberOfLeadingZeros(index + 1)) & 1) == 0;
+    }
+
+    /**
+    * Provádí operaci „up-heapify“ pro nově vložený prvek. Podle porovnání
+    * s rodičem se rozhodne, zda prvek patří mezi minima, nebo maxima, a pak
+    * stoupá jen po úrovních daného druhu (přes prarodiče).
+    *
+    * @param index Index prvku, který má být zpracován
+    */
+    private void traversujNahoru(int index) {
+        if (index == 0) {
+            return;
+        }
+
+        int indexRodice = (index - 1) / 2;
+        int porovnani = komparator.compare(prvek(index), prvek(indexRodice));
+
+        if (jeUrovenMinim(index)) {
+            if (porovnani > 0) {
+                prohod(index, indexRodice);
+                traversujNahoru(indexRodice, 1);
+            } else {
+                traversujNahoru(index, -1);
+            }
+        } else {
+            if (porovnani < 0) {
+                prohod(index, indexRodice);
+                traversujNahoru(indexRodice, -1);
+            } else {
+                traversujNahoru(index, 1);
+            }
+        }
+    }
+
+    /**
+    * Stoupá přes prarodiče, dokud je prvek vůči prarodiči ve směru znaménka
+    * (1 = větší, na úrovních maxim, -1 = menší, na úrovních minim).
+    */
+    private void traversujNahoru(int index, int smer) {
+        while (index > 2) {
+            int indexPrarodice = ((index - 1) / 2 - 1) / 2;
+            if (komparator.compare(prvek(index), prvek(indexPrarodice)) * smer <= 0) {
+                break;
+            }
+            prohod(index, indexPrarodice);
+            index = indexPrarodice;
+        }
+    }
+
+    /**
+    * Provádí operaci „down-heapify“ pro prvek na daném indexu. Prvek se
+    * porovnává s nejmenším (na úrovni minim) nebo největším (na úrovni maxim)
+    * z potomků a vnuků. Při výměně s vnukem se navíc ověří, zda prvek nepatří
+    * na opačnou úroveň mezi vnukem a jeho rodičem.
+    *
+    * @param index Index prvku, který má být zpracován
+    */
+    private void traversujDolu(int index) {
+        int smer = jeUrovenMinim(index) ? -1 : 1;
+
+        while (true) {
+            int indexPrvniPotomek = 2 * index + 1;
+            if (indexPrvniPotomek >= velikost) {
+                return;
+            }
+
+            // Nejlepší ve směru z potomků a vnuků (vnuci jsou na indexech 4i+3 až 4i+6).
+            int nejlepsi = indexPrvniPotomek;
+            if (indexPrvniPotomek + 1 < velikost && komparator.compare(prvek(indexPrvniPotomek + 1), prvek(nejlepsi)) * smer > 0) {
+                nejlepsi = indexPrvniPotomek + 1;
+            }
+            int indexPosledniVnuk = Math.min(4 * index + 6, velikost - 1);
+            for (int i = 4 * index + 3; i <= indexPosledniVnuk; i++) {
+                if (komparator.compare(prvek(i), prvek(nejlepsi)) * smer > 0) {
+                    nejlepsi = i;
+                }
+            }
+
+            if (komparator.compare(prvek(nejlepsi), prvek(index)) * smer <= 0) {
+                return;
+            }
+            prohod(nejlepsi, index);
+
+            if (nejlepsi <= indexPrvniPotomek + 1) {
+                return;
+            }
+
+            int indexRodice = (nejlepsi - 1) / 2;
+            if (komparator.compare(prvek(nejlepsi), prvek(indexRodice)) * smer < 0) {
+                prohod(nejlepsi, indexRodice);
+            }
+            index = nejlepsi;
+        }
+    }
+
+    private void prohod(int i, int j) {
+        Object temp = polePrvku[i];
+        polePrvku[i] = polePrvku[j];
+        polePrvku[j] = temp;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T prvek(int index) {
+        return (T) polePrvku[index];
+    }
+
+    /**
+    * Iterator pro procházení haldy do hloubky (preorder traversal).
+    */
+    private class IteratorHloubka implements Iterator<T> {
+
+        private int aktualniIndex = velikost != 0 ? 0 : -1;
+
+        /**
+        * Metoda zjišťuje, zda existuje další prvek k procházení.
+        *
+        * @return True, pokud existuje další prvek, jinak False
+        */
+        @Override
+        public boolean hasNext() {
+            return aktualniIndex >= 0;
+        }
+
+        /**
+        * Metoda vrátí následující prvek v pořadí procházení do hloubky (preorder
+        * traversal). Následník se dopočítá z indexu stejně jako v binární haldě.
+        *
+        * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
+        */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            T vysledek = prvek(aktualniIndex);
+
+            if (2 * aktualniIndex + 1 < velikost) {
+                aktualniIndex = 2 * aktualniIndex + 1;
+                return vysledek;
+            }
+
+            int index = aktualniIndex;
+            while (index > 0 && (index % 2 == 0 || index + 1 >= velikost)) {
+                index = (index - 1) / 2;
+            }
+            aktualniIndex = index > 0 ? index + 1 : -1;
+
+            return vysledek;
+        }
+    }
+
+    /**
+    * Iterator pro procházení haldy do šířky (level-order traversal).
+    */
+    private class IteratorSirka implements Iterator<T> {
+
+        private int aktualniIndex;
+
+        /**
+        * Metoda zjišťuje, zda existuje další prvek k procházení.
+        *
+        * @return True, pokud existuje další prvek, jinak False
+        */
+        @Override
+        public boolean hasNext() {
+            return aktualniIndex < velikost;
+        }
+
+        /**
+        * Metoda vrátí následující prvek v pořadí procházení do šířky, které
+        * v poli haldy odpovídá prostému pořadí indexů.
+        *
+        * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
+        */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+            return prvek(aktualniIndex++);
+        }
+    }
+
+    /**
+    * Iterator pro procházení haldy od nejvyšší priority, aniž by se halda
+    * měnila. Prvek na úrovni maxim je větší než celý svůj podstrom, prvek na
+    * úrovni minim ale ne. Proto se s prvkem na úrovni minim vkládají do
+    * pomocné haldy indexů rovnou i jeho potomci a dál se rozvíjejí jen prvky
+    * na úrovni maxim. Pomocná halda tak vždy obsahuje maximum zbylých prvků.
+    */
+    private class IteratorPriorita implements Iterator<T> {
+
+        private final AbstrHeap<Integer> hranice = new AbstrHeap<>((a, b) -> komparator.compare(prvek(a), prvek(b)));
+
+        public IteratorPriorita() {
+            if (velikost != 0) {
+                vlozUrovenMinim(0);
+            }
+        }
+
+        /**
+        * Metoda zjišťuje, zda existuje další prvek k procházení.
+        *
+        * @return True, pokud existuje další prvek, jinak False
+        */
+        @Override
+        public boolean hasNext() {
+            return !hranice.jePrazdny();
+        }
+
+        /**
+        * Metoda vrátí prvek s nejvyšší prioritou, který ještě nebyl vrácen.
+        * Pokud je na úrovni maxim, přidají se na hranici jeho potomci spolu
+        * se svými potomky.
+        *
+        * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
+        */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            int aktualniIndex = hranice.odeberMax();
+            if (!jeUrovenMinim(aktualniIndex)) {
+                for (int i = 2 * aktualniIndex + 1; i <= Math.min(2 * aktualniIndex + 2, velikost - 1); i++) {
+                    vlozUrovenMinim(i);
+                }
+            }
+            return prvek(aktualniIndex);
+        }
+
+        /**
+        * Vloží do pomocné haldy prvek na úrovni minim a jeho potomky.
+        */
+        private void vlozUrovenMinim(int index) {
+            hranice.vloz(index);
+            for (int i = 2 * index + 1; i <= Math.min(2 * index + 2, velikost - 1); i++) {
+                hranice.vloz(i);
+            }
+        }
+    }
+}
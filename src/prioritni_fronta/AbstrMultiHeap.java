@@ -0,0 +1,285 @@
+package prioritni_fronta;
+
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import rozhrani.IAbstrHeap;
+
+/**
+* Vláknově bezpečná prioritní fronta složená z několika dílčích hald
+* (MultiQueue). Každá dílčí halda má vlastní zámek, takže souběžná vlákna
+* většinou pracují s různými haldami a navzájem se neblokují.
+*
+* <p>Vložení jde do náhodně vybrané volné dílčí haldy. Odebrání maxima
+* v uvolněném režimu porovná vrcholy dvou náhodně vybraných hald a odebere
+* z lepší z nich, vrací tedy prvek s vysokou, ale ne nutně nejvyšší prioritou.
+* V přísném režimu se při odebírání uzamknou všechny dílčí haldy a odebere se
+* skutečné maximum, za cenu serializace odebírajících vláken.
+*
+* @param <T> Typ prvků ve frontě
+*/
+public class AbstrMultiHeap<T> implements IAbstrHeap<T> {
+
+    private static final int POCET_POKUSU = 64; // Pokusy o náhodný výběr před blokujícím zamčením nebo úplným průchodem
+
+    private final AbstrHeap<T>[] haldy;
+    private final ReentrantLock[] zamky;
+    private final AtomicReferenceArray<T> vrcholy; // Vrchol každé dílčí haldy, čitelný bez zámku
+    private final AtomicInteger velikost = new AtomicInteger();
+    private final Comparator<T> komparator;
+    private final boolean prisny;
+
+    /**
+    * Vytvoří frontu v uvolněném režimu s dvojnásobkem dílčích hald oproti
+    * počtu dostupných procesorů.
+    *
+    * @param komparator Komparátor pro porovnávání prvků
+    */
+    public AbstrMultiHeap(Comparator<T> komparator) {
+        this(komparator, 2 * Runtime.getRuntime().availableProcessors(), false);
+    }
+
+    /**
+    * Vytvoří frontu s daným počtem dílčích hald.
+    *
+    * @param komparator Komparátor pro porovnávání prvků
+    * @param pocetHald Počet dílčích hald (alespoň 1)
+    * @param prisny True, pokud má odebírání vždy vracet skutečné maximum
+    * @throws IllegalArgumentException pokud počet hald není kladný
+    */
+    @SuppressWarnings("unchecked")
+    public AbstrMultiHeap(Comparator<T> komparator, int pocetHald, boolean prisny) {
+        if (pocetHald <= 0) {
+            throw new IllegalArgumentException("Počet dílčích hald musí být kladný!");
+        }
+        this.komparator = komparator;
+        this.prisny = prisny;
+        this.haldy = new AbstrHeap[pocetHald];
+        this.zamky = new ReentrantLock[pocetHald];
+        this.vrcholy = new AtomicReferenceArray<>(pocetHald);
+
+        for (int i = 0; i < pocetHald; i++) {
+            haldy[i] = new AbstrHeap<>(komparator);
+            zamky[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean jePrisny() {
+        return prisny;
+    }
+
+    @Override
+    public int getVelikost() {
+        return velikost.get();
+    }
+
+    @Override
+    public boolean jePrazdny() {
+        return velikost.get() == 0;
+    }
+
+    /**
+    * Vyprázdní všechny dílčí haldy.
+    */
+    @Override
+    public void zrus() {
+        zamkniVse();
+        try {
+            for (int i = 0; i < haldy.length; i++) {
+                velikost.addAndGet(-haldy[i].getVelikost());
+                haldy[i].zrus();
+                vrcholy.set(i, null);
+            }
+        } finally {
+            odemkniVse();
+        }
+    }
+
+    /**
+    * Vloží prvek do první volné z náhodně vybraných dílčích hald. Pokud jsou
+    * všechny vybrané haldy opakovaně zamčené (např. v přísném režimu, kdy
+    * odebírání drží zámky všech hald), vlákno přestane zkoušet a na zámek
+    * náhodné haldy počká.
+    *
+    * @param prvek Prvek, který má být vložen
+    */
+    @Override
+    public void vloz(T prvek) {
+        ThreadLocalRandom nahoda = ThreadLocalRandom.current();
+
+        for (int pokus = 0; pokus < POCET_POKUSU; pokus++) {
+            int i = nahoda.nextInt(haldy.length);
+            if (zamky[i].tryLock()) {
+                vlozDoHaldy(i, prvek);
+                return;
+            }
+        }
+
+        int i = nahoda.nextInt(haldy.length);
+        zamky[i].lock();
+        vlozDoHaldy(i, prvek);
+    }
+
+    /**
+    * Odebere prvek s vysokou prioritou. V uvolněném režimu jde o lepší
+    * z vrcholů dvou náhodně vybraných dílčích hald, v přísném režimu
+    * o skutečné maximum celé fronty.
+    *
+    * @return Odebraný prvek nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T odeberMax() {
+        if (prisny) {
+            return odeberMaxPrisne();
+        }
+
+        ThreadLocalRandom nahoda = ThreadLocalRandom.current();
+
+        for (int pokus = 0; pokus < POCET_POKUSU; pokus++) {
+            if (velikost.get() == 0) {
+                return null;
+            }
+
+            int i = nahoda.nextInt(haldy.length);
+            int j = nahoda.nextInt(haldy.length);
+            T vrcholI = vrcholy.get(i);
+            T vrcholJ = vrcholy.get(j);
+
+            if (vrcholI == null && vrcholJ == null) {
+                continue;
+            }
+            if (vrcholI == null || (vrcholJ != null && komparator.compare(vrcholJ, vrcholI) > 0)) {
+                i = j;
+            }
+
+            if (zamky[i].tryLock()) {
+                try {
+                    if (!haldy[i].jePrazdny()) {
+                        return odeberZHaldy(i);
+                    }
+                } finally {
+                    zamky[i].unlock();
+                }
+            }
+        }
+
+        return odeberZPrvniNeprazdne();
+    }
+
+    /**
+    * Zpřístupní prvek s nejvyšší prioritou. V uvolněném režimu se porovnají
+    * vrcholy dílčích hald bez zamykání, při souběžných změnách tak výsledek
+    * nemusí být přesný.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T zpristupniMax() {
+        if (prisny) {
+            zamkniVse();
+            try {
+                int index = indexMaxima();
+                return index >= 0 ? haldy[index].zpristupniMax() : null;
+            } finally {
+                odemkniVse();
+            }
+        }
+
+        T max = null;
+        for (int i = 0; i < haldy.length; i++) {
+            T vrchol = vrcholy.get(i);
+            if (vrchol != null && (max == null || komparator.compare(vrchol, max) > 0)) {
+                max = vrchol;
+            }
+        }
+        return max;
+    }
+
+    /**
+    * Odebere skutečné maximum, všechny dílčí haldy jsou po dobu výběru zamčené.
+    */
+    private T odeberMaxPrisne() {
+        zamkniVse();
+        try {
+            int index = indexMaxima();
+            return index >= 0 ? odeberZHaldy(index) : null;
+        } finally {
+            odemkniVse();
+        }
+    }
+
+    /**
+    * Projde postupně všechny dílčí haldy a odebere z první neprázdné. Slouží
+    * jako záložní cesta, když náhodný výběr opakovaně narazí na prázdné
+    * nebo zamčené haldy.
+    */
+    private T odeberZPrvniNeprazdne() {
+        for (int i = 0; i < haldy.length; i++) {
+            zamky[i].lock();
+            try {
+                if (!haldy[i].jePrazdny()) {
+                    return odeberZHaldy(i);
+                }
+            } finally {
+                zamky[i].unlock();
+            }
+        }
+        return null;
+    }
+
+    /**
+    * Vloží prvek do dílčí haldy, jejíž zámek drží volající vlákno, a zámek
+    * uvolní.
+    */
+    private void vlozDoHaldy(int index, T prvek) {
+        try {
+            haldy[index].vloz(prvek);
+            vrcholy.set(index, haldy[index].zpristupniMax());
+            velikost.incrementAndGet();
+        } finally {
+            zamky[index].unlock();
+        }
+    }
+
+    /**
+    * Odebere maximum z dílčí haldy, jejíž zámek drží volající vlákno.
+    */
+    private T odeberZHaldy(int index) {
+        T prvek = haldy[index].odeberMax();
+        vrcholy.set(index, haldy[index].zpristupniMax());
+        velikost.decrementAndGet();
+        return prvek;
+    }
+
+    /**
+    * Vrátí index dílčí haldy s nejvyšším vrcholem, volající musí držet
+    * zámky všech hald.
+    */
+    private int indexMaxima() {
+        int index = -1;
+        for (int i = 0; i < haldy.length; i++) {
+            if (!haldy[i].jePrazdny() && (index < 0 || komparator.compare(haldy[i].zpristupniMax(), haldy[index].zpristupniMax()) > 0)) {
+                index = i;
+            }
+        }
+        return index;
+    }
+
+    /**
+    * Uzamkne všechny dílčí haldy, vždy ve stejném pořadí, aby nemohlo dojít
+    * k uváznutí.
+    */
+    private void zamkniVse() {
+        for (ReentrantLock zamek : zamky) {
+            zamek.lock();
+        }
+    }
+
+    private void odemkniVse() {
+        for (int i = zamky.length - 1; i >= 0; i--) {
+            zamky[i].unlock();
+        }
+    }
+}
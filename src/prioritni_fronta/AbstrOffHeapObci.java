@@ -0,0 +1,445 @@
+package prioritni_fronta;
+
+import data.Obec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import rozhrani.IAbstrHeap;
+
+/**
+* Prioritní fronta obcí uložená mimo haldu JVM. Každá obec je zapsána jako
+* záznam pevné délky v přímém (direct) bufferu, případně v souboru mapovaném
+* do paměti, a názvy obcí a krajů leží v samostatné oblasti řetězců. Garbage
+* collector tak neprochází desítky milionů objektů, instance třídy Obec se
+* vytvářejí až při zpřístupnění nebo odebrání maxima.
+*
+* <p>Prioritou je počet osob, halda se reorganizuje přímo nad zabalenými
+* záznamy. Názvy odebraných obcí zůstávají v oblasti řetězců jako mrtvé
+* bajty, a jakmile jich je víc než živých, oblast se zhutní. Velikost každé
+* oblasti je omezena na 2 GB, fronta tak pojme nejvýše
+* {@link #MAX_POCET_ZAZNAMU} obcí (zhruba 67 milionů).
+*/
+public class AbstrOffHeapObci implements IAbstrHeap<Obec>, AutoCloseable {
+
+    // Rozložení záznamu obce (v bajtech)
+    private static final int POCET_OSOB = 0;
+    private static final int CISLO_KRAJE = 4;
+    private static final int PSC = 8;
+    private static final int POCET_MUZU = 12;
+    private static final int POCET_ZEN = 16;
+    private static final int NAZEV_OBCE = 20;
+    private static final int NAZEV_KRAJE = 24;
+    private static final int DELKA_NAZVU_OBCE = 28;
+    private static final int DELKA_NAZVU_KRAJE = 30;
+    private static final int DELKA_ZAZNAMU = 32;
+
+    private static final int VYCHOZI_KAPACITA = 1024;
+    private static final int PRAH_ZHUTNENI = VYCHOZI_KAPACITA * 16; // Menší oblast řetězců se nezhutňuje
+
+    /**
+    * Nejvyšší počet obcí ve frontě. Záznamy leží v jedné oblasti adresované
+    * typem int, takže ofset posledního záznamu se musí vejít do 2 GB.
+    */
+    public static final int MAX_POCET_ZAZNAMU = Integer.MAX_VALUE / DELKA_ZAZNAMU;
+
+    private final Oblast zaznamy;
+    private final Oblast retezce;
+    private final Map<String, Integer> ofsetyKraju = new HashMap<>(); // Názvy krajů se ukládají jen jednou
+    private int velikost;
+    private int konecRetezcu;
+    private int mrtveBajty; // Bajty názvů odebraných obcí, které ještě leží v oblasti řetězců
+
+    /**
+    * Oblast paměti mimo haldu JVM, která se podle potřeby zvětšuje. Je buď
+    * přímým bufferem, nebo souborem mapovaným do paměti.
+    */
+    private static final class Oblast {
+
+        private final FileChannel kanal; // Null pro přímý buffer
+        private ByteBuffer buffer;
+
+        Oblast(FileChannel kanal, int kapacita) {
+            this.kanal = kanal;
+            this.buffer = alokuj(kapacita);
+        }
+
+        void zajistiKapacitu(long pozadovanaKapacita) {
+            if (pozadovanaKapacita <= buffer.capacity()) {
+                return;
+            }
+            if (pozadovanaKapacita > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Byla překročena maximální velikost fronty!");
+            }
+
+            int novaKapacita = (int) Math.min(Integer.MAX_VALUE, Math.max(pozadovanaKapacita, 2L * buffer.capacity()));
+            ByteBuffer novyBuffer = alokuj(novaKapacita);
+            if (kanal == null) {
+                ByteBuffer stary = buffer.duplicate();
+                stary.clear();
+                novyBuffer.put(stary);
+                novyBuffer.clear();
+            }
+            buffer = novyBuffer;
+        }
+
+        private ByteBuffer alokuj(int kapacita) {
+            if (kanal == null) {
+                return ByteBuffer.allocateDirect(kapacita).order(ByteOrder.nativeOrder());
+            }
+            try {
+                // Namapování větší oblasti soubor zvětší, dosavadní obsah zůstane zachován.
+                return kanal.map(FileChannel.MapMode.READ_WRITE, 0, kapacita).order(ByteOrder.nativeOrder());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Soubor fronty nelze namapovat do paměti.", e);
+            }
+        }
+
+        void zavri() throws IOException {
+            if (kanal != null) {
+                kanal.close();
+            }
+        }
+    }
+
+    /**
+    * Vytvoří frontu v přímých bufferech mimo haldu JVM.
+    */
+    public AbstrOffHeapObci() {
+        this.zaznamy = new Oblast(null, VYCHOZI_KAPACITA * DELKA_ZAZNAMU);
+        this.retezce = new Oblast(null, VYCHOZI_KAPACITA * 16);
+    }
+
+    /**
+    * Vytvoří frontu v souborech mapovaných do paměti. Záznamy se ukládají do
+    * zadaného souboru, řetězce do souboru se stejným názvem a příponou
+    * „.nazvy“. Soubory se přepíší.
+    *
+    * @param soubor Cesta k souboru se záznamy
+    * @throws IOException pokud soubory nelze otevřít
+    */
+    public AbstrOffHeapObci(Path soubor) throws IOException {
+        Path souborNazvu = soubor.resolveSibling(soubor.getFileName() + ".nazvy");
+        this.zaznamy = new Oblast(otevri(soubor), VYCHOZI_KAPACITA * DELKA_ZAZNAMU);
+        this.retezce = new Oblast(otevri(souborNazvu), VYCHOZI_KAPACITA * 16);
+    }
+
+    private static FileChannel otevri(Path soubor) throws IOException {
+        return FileChannel.open(soubor, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    @Override
+    public int getVelikost() {
+        return velikost;
+    }
+
+    @Override
+    public boolean jePrazdny() {
+        return velikost == 0;
+    }
+
+    /**
+    * Vyprázdní frontu včetně oblasti řetězců.
+    */
+    @Override
+    public void zrus() {
+        velikost = 0;
+        konecRetezcu = 0;
+        mrtveBajty = 0;
+        ofsetyKraju.clear();
+    }
+
+    /**
+    * Metoda pro vybudování haldy z daného pole obcí. Původní obsah fronty se zahodí.
+    *
+    * @param obce Pole obcí, které budou tvořit haldu
+    * @throws IllegalStateException pokud je obcí více než {@link #MAX_POCET_ZAZNAMU}
+    */
+    public void vybuduj(Obec[] obce) {
+        zkontrolujPocet(obce.length);
+        zrus();
+        zaznamy.zajistiKapacitu((long) obce.length * DELKA_ZAZNAMU);
+
+        for (Obec obec : obce) {
+            zapis(velikost, obec);
+            velikost++;
+        }
+
+        for (int i = velikost / 2 - 1; i >= 0; i--) {
+            traversujDolu(i);
+        }
+    }
+
+    /**
+    * Zapíše obec do fronty jako záznam a provede reorganizaci.
+    *
+    * @param obec Obec, která má být vložena
+    * @throws IllegalStateException pokud je fronta plná
+    */
+    @Override
+    public void vloz(Obec obec) {
+        zkontrolujPocet(velikost + 1L);
+        zaznamy.zajistiKapacitu((long) (velikost + 1) * DELKA_ZAZNAMU);
+        zapis(velikost, obec);
+        velikost++;
+
+        traversujNahoru(velikost - 1);
+    }
+
+    /**
+    * Odebere obec s nejvyšším počtem osob a vrátí ji jako novou instanci.
+    *
+    * @return Obec s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public Obec odeberMax() {
+        if (velikost == 0) {
+            return null;
+        }
+
+        Obec maxObec = nacti(0);
+        mrtveBajty += Short.toUnsignedInt(zaznamy.buffer.getShort(DELKA_NAZVU_OBCE));
+        velikost--;
+        if (velikost > 0) {
+            zkopiruj(velikost, 0);
+            traversujDolu(0);
+        }
+
+        if (mrtveBajty > PRAH_ZHUTNENI && mrtveBajty > konecRetezcu - mrtveBajty) {
+            zhutniRetezce();
+        }
+
+        return maxObec;
+    }
+
+    /**
+    * Zpřístupní obec s nejvyšším počtem osob jako novou instanci.
+    *
+    * @return Obec s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public Obec zpristupniMax() {
+        return velikost > 0 ? nacti(0) : null;
+    }
+
+    /**
+    * Zpřístupní nejvyšší počet osob ve frontě bez vytvoření instance obce.
+    *
+    * @return Nejvyšší počet osob ve frontě
+    * @throws NoSuchElementException pokud je fronta prázdná
+    */
+    public int zpristupniMaxPocetOsob() {
+        if (velikost == 0) {
+            throw new NoSuchElementException("Fronta je prázdná!");
+        }
+        return zaznamy.buffer.getInt(POCET_OSOB);
+    }
+
+    /**
+    * Uzavře soubory mapované do paměti, u přímých bufferů nedělá nic.
+    *
+    * @throws IOException pokud soubor nelze uzavřít
+    */
+    @Override
+    public void close() throws IOException {
+        zaznamy.zavri();
+        retezce.zavri();
+    }
+
+    private static void zkontrolujPocet(long pocet) {
+        if (pocet > MAX_POCET_ZAZNAMU) {
+            throw new IllegalStateException("Fronta pojme nejvýše " + MAX_POCET_ZAZNAMU + " obcí!");
+        }
+    }
+
+    /**
+    * Provádí operaci „up-heapify“ nad záznamem na daném indexu. Záznam se
+    * drží v lokálních proměnných a rodiče se posouvají do uvolněného místa.
+    */
+    private void traversujNahoru(int index) {
+        ByteBuffer b = zaznamy.buffer;
+        int adresa = index * DELKA_ZAZNAMU;
+        long z0 = b.getLong(adresa), z1 = b.getLong(adresa + 8), z2 = b.getLong(adresa + 16), z3 = b.getLong(adresa + 24);
+        int klic = b.getInt(adresa + POCET_OSOB);
+
+        while (index > 0) {
+            int indexRodice = (index - 1) / 2;
+            if (klic <= b.getInt(indexRodice * DELKA_ZAZNAMU + POCET_OSOB)) {
+                break;
+            }
+            zkopiruj(indexRodice, index);
+            index = indexRodice;
+        }
+
+        adresa = index * DELKA_ZAZNAMU;
+        b.putLong(adresa, z0).putLong(adresa + 8, z1).putLong(adresa + 16, z2).putLong(adresa + 24, z3);
+    }
+
+    /**
+    * Provádí operaci „down-heapify“ nad záznamem na daném indexu. Záznam se
+    * drží v lokálních proměnných a větší potomci se posouvají nahoru.
+    */
+    private void traversujDolu(int index) {
+        ByteBuffer b = zaznamy.buffer;
+        int adresa = index * DELKA_ZAZNAMU;
+        long z0 = b.getLong(adresa), z1 = b.getLong(adresa + 8), z2 = b.getLong(adresa + 16), z3 = b.getLong(adresa + 24);
+        int klic = b.getInt(adresa + POCET_OSOB);
+
+        while (true) {
+            int potomek = 2 * index + 1;
+            if (potomek >= velikost) {
+                break;
+            }
+            if (potomek + 1 < velikost && b.getInt((potomek + 1) * DELKA_ZAZNAMU + POCET_OSOB) > b.getInt(potomek * DELKA_ZAZNAMU + POCET_OSOB)) {
+                potomek++;
+            }
+            if (b.getInt(potomek * DELKA_ZAZNAMU + POCET_OSOB) <= klic) {
+                break;
+            }
+            zkopiruj(potomek, index);
+            index = potomek;
+        }
+
+        adresa = index * DELKA_ZAZNAMU;
+        b.putLong(adresa, z0).putLong(adresa + 8, z1).putLong(adresa + 16, z2).putLong(adresa + 24, z3);
+    }
+
+    /**
+    * Zkopíruje záznam z jednoho indexu na jiný.
+    */
+    private void zkopiruj(int z, int na) {
+        ByteBuffer b = zaznamy.buffer;
+        int zdroj = z * DELKA_ZAZNAMU;
+        int cil = na * DELKA_ZAZNAMU;
+        for (int i = 0; i < DELKA_ZAZNAMU; i += 8) {
+            b.putLong(cil + i, b.getLong(zdroj + i));
+        }
+    }
+
+    /**
+    * Zapíše obec jako záznam na daný index.
+    */
+    private void zapis(int index, Obec obec) {
+        byte[] nazevObce = obec.getObec().getBytes(StandardCharsets.UTF_8);
+        int ofsetObce = ulozRetezec(nazevObce);
+        byte[] nazevKraje = obec.getNazevKraje().getBytes(StandardCharsets.UTF_8);
+        Integer ofsetKraje = ofsetyKraju.get(obec.getNazevKraje());
+        if (ofsetKraje == null) {
+            ofsetKraje = ulozRetezec(nazevKraje);
+            ofsetyKraju.put(obec.getNazevKraje(), ofsetKraje);
+        }
+
+        ByteBuffer b = zaznamy.buffer;
+        int adresa = index * DELKA_ZAZNAMU;
+        b.putInt(adresa + POCET_OSOB, obec.getPocetOsob());
+        b.putInt(adresa + CISLO_KRAJE, obec.getCisloKraje());
+        b.putInt(adresa + PSC, obec.getPSC());
+        b.putInt(adresa + POCET_MUZU, obec.getPocetMuzu());
+        b.putInt(adresa + POCET_ZEN, obec.getPocetZen());
+        b.putInt(adresa + NAZEV_OBCE, ofsetObce);
+        b.putInt(adresa + NAZEV_KRAJE, ofsetKraje);
+        b.putShort(adresa + DELKA_NAZVU_OBCE, (short) nazevObce.length);
+        b.putShort(adresa + DELKA_NAZVU_KRAJE, (short) nazevKraje.length);
+    }
+
+    /**
+    * Vytvoří instanci obce ze záznamu na daném indexu.
+    */
+    private Obec nacti(int index) {
+        ByteBuffer b = zaznamy.buffer;
+        int adresa = index * DELKA_ZAZNAMU;
+
+        return new Obec(
+                b.getInt(adresa + CISLO_KRAJE),
+                nactiRetezec(b.getInt(adresa + NAZEV_KRAJE), Short.toUnsignedInt(b.getShort(adresa + DELKA_NAZVU_KRAJE))),
+                b.getInt(adresa + PSC),
+                nactiRetezec(b.getInt(adresa + NAZEV_OBCE), Short.toUnsignedInt(b.getShort(adresa + DELKA_NAZVU_OBCE))),
+                b.getInt(adresa + POCET_MUZU),
+                b.getInt(adresa + POCET_ZEN),
+                b.getInt(adresa + POCET_OSOB));
+    }
+
+    /**
+    * Připojí řetězec na konec oblasti řetězců a vrátí jeho ofset. Pokud by
+    * se řetězec do oblasti nevešel, oblast se nejprve zhutní.
+    */
+    private int ulozRetezec(byte[] retezec) {
+        if (retezec.length > 0xFFFF) {
+            throw new IllegalArgumentException("Název je příliš dlouhý!");
+        }
+        if ((long) konecRetezcu + retezec.length > Integer.MAX_VALUE && mrtveBajty > 0) {
+            zhutniRetezce();
+        }
+        retezce.zajistiKapacitu((long) konecRetezcu + retezec.length);
+
+        int ofset = konecRetezcu;
+        ByteBuffer cil = retezce.buffer.duplicate();
+        cil.position(ofset);
+        cil.put(retezec);
+        konecRetezcu += retezec.length;
+
+        return ofset;
+    }
+
+    /**
+    * Zhutní oblast řetězců. Názvy krajů a obcí, které jsou ve frontě, se
+    * zkopírují za sebe do pomocného přímého bufferu, záznamy dostanou nové
+    * ofsety a výsledek se přepíše na začátek oblasti. Zhutňuje se, až když
+    * mrtvé bajty převáží živé, takže cena zhutnění se rozloží do odebrání,
+    * která je uvolnila.
+    */
+    private void zhutniRetezce() {
+        ByteBuffer novy = ByteBuffer.allocateDirect(konecRetezcu - mrtveBajty);
+        Map<Integer, Integer> noveOfsetyKraju = new HashMap<>();
+
+        for (Map.Entry<String, Integer> kraj : ofsetyKraju.entrySet()) {
+            int novyOfset = novy.position();
+            presunRetezec(kraj.getValue(), kraj.getKey().getBytes(StandardCharsets.UTF_8).length, novy);
+            noveOfsetyKraju.put(kraj.getValue(), novyOfset);
+            kraj.setValue(novyOfset);
+        }
+
+        ByteBuffer b = zaznamy.buffer;
+        for (int i = 0; i < velikost; i++) {
+            int adresa = i * DELKA_ZAZNAMU;
+            int novyOfset = novy.position();
+            presunRetezec(b.getInt(adresa + NAZEV_OBCE), Short.toUnsignedInt(b.getShort(adresa + DELKA_NAZVU_OBCE)), novy);
+            b.putInt(adresa + NAZEV_OBCE, novyOfset);
+            b.putInt(adresa + NAZEV_KRAJE, noveOfsetyKraju.get(b.getInt(adresa + NAZEV_KRAJE)));
+        }
+
+        novy.flip();
+        ByteBuffer cil = retezce.buffer.duplicate();
+        cil.clear();
+        cil.put(novy);
+
+        konecRetezcu = novy.limit();
+        mrtveBajty = 0;
+    }
+
+    /**
+    * Zkopíruje řetězec z oblasti řetězců na aktuální pozici cílového bufferu.
+    */
+    private void presunRetezec(int ofset, int delka, ByteBuffer cil) {
+        ByteBuffer zdroj = retezce.buffer.duplicate();
+        zdroj.limit(ofset + delka);
+        zdroj.position(ofset);
+        cil.put(zdroj);
+    }
+
+    private String nactiRetezec(int ofset, int delka) {
+        byte[] retezec = new byte[delka];
+        ByteBuffer zdroj = retezce.buffer.duplicate();
+        zdroj.position(ofset);
+        zdroj.get(retezec);
+        return new String(retezec, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,123 @@
+package prioritni_fronta;
+
+import enumy.eTypProhl;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import rozhrani.IAbstrDoubleList;
+import seznam.AbstrDoubleList;
+
+/**
+* Omezená prioritní fronta, která z libovolně dlouhého proudu prvků uchovává
+* jen N prvků s nejvyšší prioritou (např. žebříček největších obcí). Prvky
+* jsou uloženy v haldě s obráceným komparátorem, v jejímž kořeni je nejslabší
+* uchovaný prvek. Nový prvek jej buď v čase O(log N) vytlačí, nebo je
+* v čase O(1) zahozen, paměť je tak omezena na N prvků.
+*
+* @param <T> Typ prvků ve frontě
+*/
+public class AbstrOmezenaHeap<T> {
+
+    private final AbstrHeap<T> halda; // Halda s nejslabším uchovaným prvkem v kořeni
+    private final Comparator<T> komparator;
+    private final int kapacita;
+
+    /**
+    * Vytvoří omezenou frontu, která uchovává nejvýše daný počet prvků.
+    *
+    * @param komparator Komparátor pro porovnávání prvků (vyšší = větší priorita)
+    * @param kapacita Počet uchovávaných prvků s nejvyšší prioritou
+    * @throws IllegalArgumentException pokud kapacita není kladná
+    */
+    public AbstrOmezenaHeap(Comparator<T> komparator, int kapacita) {
+        if (kapacita <= 0) {
+            throw new IllegalArgumentException("Kapacita fronty musí být kladná!");
+        }
+        this.komparator = komparator;
+        this.kapacita = kapacita;
+        this.halda = new AbstrHeap<>(komparator.reversed());
+    }
+
+    public int getKapacita() {
+        return kapacita;
+    }
+
+    public int getVelikost() {
+        return halda.getVelikost();
+    }
+
+    public boolean jePrazdny() {
+        return halda.jePrazdny();
+    }
+
+    public void zrus() {
+        halda.zrus();
+    }
+
+    /**
+    * Nabídne prvek frontě. Dokud není fronta plná, prvek se vždy vloží, jinak
+    * vytlačí nejslabší uchovaný prvek, pokud má vyšší prioritu než on.
+    *
+    * @param prvek Nabízený prvek
+    * @return Prvek, který ve frontě nezůstal (vytlačený nebo sám nabízený),
+    *         nebo null, pokud se fronta teprve plnila
+    */
+    public T vloz(T prvek) {
+        if (halda.getVelikost() < kapacita) {
+            halda.vloz(prvek);
+            return null;
+        }
+
+        if (komparator.compare(prvek, halda.zpristupniMax()) <= 0) {
+            return prvek;
+        }
+        return halda.nahradMax(prvek);
+    }
+
+    /**
+    * Zpřístupní nejslabší uchovaný prvek, tedy hranici, kterou musí nový
+    * prvek překonat, aby se do fronty dostal.
+    *
+    * @return Prvek s nejnižší prioritou ve frontě nebo null, pokud je fronta prázdná
+    */
+    public T zpristupniMin() {
+        return halda.zpristupniMax();
+    }
+
+    /**
+    * Zpřístupní všechny uchované prvky seřazené od nejvyšší priority, aniž
+    * by se fronta změnila.
+    *
+    * @return Seznam uchovaných prvků seřazený podle priority
+    */
+    @SuppressWarnings("unchecked")
+    public IAbstrDoubleList<T> zpristupniVse() {
+        Object[] prvky = new Object[halda.getVelikost()];
+
+        Iterator<T> it = halda.vypis(eTypProhl.SIRKA);
+        for (int i = 0; it.hasNext(); i++) {
+            prvky[i] = it.next();
+        }
+        Arrays.sort(prvky, (a, b) -> komparator.compare((T) b, (T) a));
+
+        IAbstrDoubleList<T> vysledek = new AbstrDoubleList<>();
+        for (Object prvek : prvky) {
+            vysledek.vlozPosledni((T) prvek);
+        }
+        return vysledek;
+    }
+
+    /**
+    * Odebere všechny uchované prvky a vrátí je seřazené od nejvyšší priority.
+    *
+    * @return Seznam uchovaných prvků seřazený podle priority
+    */
+    public IAbstrDoubleList<T> odeberVse() {
+        IAbstrDoubleList<T> vysledek = new AbstrDoubleList<>();
+
+        while (!halda.jePrazdny()) {
+            vysledek.vlozPrvni(halda.odeberMax());
+        }
+        return vysledek;
+    }
+}
@@ -0,0 +1,481 @@
+package prioritni_fronta;
+
+import enumy.eTypProhl;
+import java.util.Comparator;
+import java.util.Iterator;
+import rozhrani.IAbstrFifo;
+import rozhrani.IAbstrHeap;
+import rozhrani.IAbstrLifo;
+import zasobnik_fronta.AbstrFifo;
+import zasobnik_fronta.AbstrLifo;
+
+/**
+* Párovací halda (pairing heap). Na rozdíl od haldy v poli ji lze spojit
+* s jinou párovací haldou v konstantním čase, takže sloučení front
+* jednotlivých krajů do celostátní fronty nevyžaduje kopírování prvků.
+*
+* <p>Halda je strom, ve kterém má každý uzel odkaz na prvního potomka
+* a na dalšího sourozence. Vložení, spojení a zvýšení priority stojí O(1),
+* odebrání maxima a obecná změna priority O(log n) amortizovaně.
+*
+* @param <T> Typ prvků v haldě
+*/
+public class AbstrPairingHeap<T> implements IAbstrHeap<T> {
+
+    private Uchyt<T> koren;
+    private int velikost;
+    private final Comparator<T> komparator;
+    private Vlastnik<T> vlastnik = new Vlastnik<>(this); // Vlastník úchytů vydaných od posledního zrušení
+
+    /**
+    * Úchyt (uzel) prvku vloženého do párovací haldy. Přes úchyt lze prvku
+    * změnit prioritu nebo jej odebrat.
+    *
+    * @param <T> Typ prvku
+    */
+    public static final class Uchyt<T> {
+
+        private T prvek;
+        private Uchyt<T> potomek; // První potomek
+        private Uchyt<T> sourozenec; // Další sourozenec
+        private Uchyt<T> predchozi; // Předchozí sourozenec, u prvního potomka rodič
+        private Vlastnik<T> vlastnik;
+        private boolean vHalde;
+
+        private Uchyt(T prvek, Vlastnik<T> vlastnik) {
+            this.prvek = prvek;
+            this.vlastnik = vlastnik;
+            this.vHalde = true;
+        }
+
+        public T getPrvek() {
+            return prvek;
+        }
+
+        /**
+        * Zjistí, zda je prvek úchytu stále v haldě. Úchyt přestane být
+        * platný odebráním prvku nebo zrušením haldy.
+        *
+        * @return True, pokud prvek v haldě stále je, jinak false
+        */
+        public boolean jePlatny() {
+            return vHalde && halda() != null;
+        }
+
+        /**
+        * Vrátí haldu, které prvek úchytu patří, nebo null, pokud byla halda
+        * mezitím zrušena. Cesta přes přesměrované vlastníky se zkrátí, aby
+        * další dotaz stál O(1).
+        */
+        private AbstrPairingHeap<T> halda() {
+            Vlastnik<T> aktualni = vlastnik;
+            while (aktualni.dalsi != null) {
+                aktualni = aktualni.dalsi;
+            }
+            vlastnik = aktualni;
+            return aktualni.halda;
+        }
+    }
+
+    /**
+    * Vlastník úchytů. Všechny úchyty vložené do haldy mezi dvěma zrušeními
+    * sdílejí jednoho vlastníka, takže zrušení haldy nebo předání prvků jiné
+    * haldě při spojení stojí O(1) bez ohledu na počet úchytů.
+    *
+    * @param <T> Typ prvku
+    */
+    private static final class Vlastnik<T> {
+
+        private AbstrPairingHeap<T> halda; // null po zrušení haldy
+        private Vlastnik<T> dalsi; // Vlastník haldy, do které byly úchyty připojeny spojením
+
+        private Vlastnik(AbstrPairingHeap<T> halda) {
+            this.halda = halda;
+        }
+    }
+
+    public AbstrPairingHeap(Comparator<T> komparator) {
+        this.komparator = komparator;
+    }
+
+    @Override
+    public int getVelikost() {
+        return velikost;
+    }
+
+    @Override
+    public boolean jePrazdny() {
+        return koren == null;
+    }
+
+    /**
+    * Vyprázdní haldu. Dříve vydané úchyty přestanou být platné a operace
+    * s nimi vyhodí výjimku.
+    */
+    @Override
+    public void zrus() {
+        koren = null;
+        velikost = 0;
+        vlastnik.halda = null;
+        vlastnik = new Vlastnik<>(this);
+    }
+
+    @Override
+    public void vloz(T prvek) {
+        vlozUchyt(prvek);
+    }
+
+    /**
+    * Vloží prvek do haldy a vrátí jeho úchyt.
+    *
+    * @param prvek Prvek, který má být vložen
+    * @return Úchyt vloženého prvku
+    */
+    public Uchyt<T> vlozUchyt(T prvek) {
+        Uchyt<T> uchyt = new Uchyt<>(prvek, vlastnik);
+        koren = spojStromy(koren, uchyt);
+        velikost++;
+        return uchyt;
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou a vrátí jej.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je halda prázdná
+    */
+    @Override
+    public T odeberMax() {
+        if (koren == null) {
+            return null;
+        }
+
+        Uchyt<T> maxUchyt = koren;
+        koren = sparujPotomky(maxUchyt);
+        velikost--;
+        maxUchyt.vHalde = false;
+
+        return maxUchyt.prvek;
+    }
+
+    @Override
+    public T zpristupniMax() {
+        return koren != null ? koren.prvek : null;
+    }
+
+    /**
+    * Připojí k této haldě všechny prvky jiné párovací haldy v konstantním
+    * čase. Druhá halda se vyprázdní a její úchyty od té doby patří této haldě.
+    * Obě haldy musí používat stejný komparátor.
+    *
+    * @param jina Halda, jejíž prvky se připojí
+    */
+    public void spoj(AbstrPairingHeap<T> jina) {
+        if (jina == this || jina.koren == null) {
+            return;
+        }
+
+        koren = spojStromy(koren, jina.koren);
+        velikost += jina.velikost;
+
+        jina.koren = null;
+        jina.velikost = 0;
+        jina.vlastnik.dalsi = vlastnik;
+        jina.vlastnik.halda = null;
+        jina.vlastnik = new Vlastnik<>(jina);
+    }
+
+    /**
+    * Obnoví pozici prvku, jehož priorita se zvýšila. Prvek se i se svým
+    * podstromem odřízne a připojí ke kořeni, což stojí O(1).
+    *
+    * @param uchyt Úchyt prvku, jehož priorita se zvýšila
+    * @throws IllegalArgumentException pokud prvek úchytu již není v této haldě
+    */
+    public void zvysPrioritu(Uchyt<T> uchyt) {
+        overUchyt(uchyt);
+        if (uchyt == koren) {
+            return;
+        }
+
+        odrizni(uchyt);
+        koren = spojStromy(koren, uchyt);
+    }
+
+    /**
+    * Obnoví pozici prvku, jehož priorita se libovolně změnila (typicky
+    * snížila). Potomci prvku se spárují do samostatného stromu a prvek se
+    * spolu s nimi znovu připojí ke kořeni.
+    *
+    * @param uchyt Úchyt prvku, jehož priorita se změnila
+    * @throws IllegalArgumentException pokud prvek úchytu již není v této haldě
+    */
+    public void zmenPrioritu(Uchyt<T> uchyt) {
+        overUchyt(uchyt);
+
+        if (uchyt == koren) {
+            koren = spojStromy(sparujPotomky(uchyt), uchyt);
+        } else {
+            odrizni(uchyt);
+            Uchyt<T> potomci = sparujPotomky(uchyt);
+            koren = spojStromy(spojStromy(koren, potomci), uchyt);
+        }
+    }
+
+    /**
+    * Nahradí prvek úchytu novým prvkem a obnoví jeho pozici v haldě.
+    *
+    * @param uchyt Úchyt prvku, který má být nahrazen
+    * @param novyPrvek Nový prvek
+    * @throws IllegalArgumentException pokud prvek úchytu již není v této haldě
+    */
+    public void zmenPrioritu(Uchyt<T> uchyt, T novyPrvek) {
+        overUchyt(uchyt);
+        uchyt.prvek = novyPrvek;
+        zmenPrioritu(uchyt);
+    }
+
+    /**
+    * Odebere z haldy prvek daného úchytu.
+    *
+    * @param uchyt Úchyt odebíraného prvku
+    * @return Odebraný prvek
+    * @throws IllegalArgumentException pokud prvek úchytu již není v této haldě
+    */
+    public T odeber(Uchyt<T> uchyt) {
+        overUchyt(uchyt);
+        if (uchyt == koren) {
+            return odeberMax();
+        }
+
+        odrizni(uchyt);
+        koren = spojStromy(koren, sparujPotomky(uchyt));
+        velikost--;
+        uchyt.vHalde = false;
+
+        return uchyt.prvek;
+    }
+
+    /**
+    * Vytvoří a vrátí iterator pro procházení stromu haldy podle zvoleného
+    * typu prohlížení. Při prohlížení podle priority vrací iterátor prvky
+    * seřazené od nejvyšší priority, aniž by haldu měnil.
+    *
+    * @param typProhl Typ prohlížení, zda do hloubky, do šířky nebo podle priority
+    * @return Iterator pro procházení haldy
+    */
+    public Iterator<T> vypis(eTypProhl typProhl) {
+        switch (typProhl) {
+            case HLOUBKA:
+                return new IteratorHloubka();
+            case SIRKA:
+                return new IteratorSirka();
+            case PRIORITA:
+                return new IteratorPriorita();
+            default:
+                System.out.println("Neznámý typ prohlížení.");
+                return null;
+        }
+    }
+
+    /**
+    * Ověří, že prvek úchytu je stále v haldě a že tou haldou je tato halda.
+    * Úchyt jiné nebo zrušené haldy by jinak propojil cizí uzly s tímto
+    * stromem.
+    */
+    private void overUchyt(Uchyt<T> uchyt) {
+        if (uchyt == null || !uchyt.vHalde || uchyt.halda() != this) {
+            throw new IllegalArgumentException("Prvek úchytu již není v této haldě!");
+        }
+    }
+
+    /**
+    * Spojí dva stromy, kořen s nižší prioritou se stane prvním potomkem
+    * kořene s vyšší prioritou. Kořeny nesmí mít sourozence.
+    *
+    * @return Kořen spojeného stromu
+    */
+    private Uchyt<T> spojStromy(Uchyt<T> a, Uchyt<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (komparator.compare(b.prvek, a.prvek) > 0) {
+            Uchyt<T> temp = a;
+            a = b;
+            b = temp;
+        }
+
+        b.predchozi = a;
+        b.sourozenec = a.potomek;
+        if (a.potomek != null) {
+            a.potomek.predchozi = b;
+        }
+        a.potomek = b;
+        a.predchozi = null;
+        a.sourozenec = null;
+
+        return a;
+    }
+
+    /**
+    * Odřízne uzel (i s jeho podstromem) od rodiče a sourozenců.
+    */
+    private void odrizni(Uchyt<T> uchyt) {
+        if (uchyt.predchozi.potomek == uchyt) {
+            uchyt.predchozi.potomek = uchyt.sourozenec;
+        } else {
+            uchyt.predchozi.sourozenec = uchyt.sourozenec;
+        }
+        if (uchyt.sourozenec != null) {
+            uchyt.sourozenec.predchozi = uchyt.predchozi;
+        }
+        uchyt.predchozi = null;
+        uchyt.sourozenec = null;
+    }
+
+    /**
+    * Odpojí potomky uzlu a spojí je dvouprůchodovým párováním do jednoho
+    * stromu. Nejprve se spojí sousední dvojice zleva doprava, potom se
+    * výsledky spojí zprava doleva.
+    *
+    * @param uzel Uzel, jehož potomci se párují
+    * @return Kořen stromu vzniklého z potomků nebo null, pokud uzel potomky nemá
+    */
+    private Uchyt<T> sparujPotomky(Uchyt<T> uzel) {
+        Uchyt<T> aktualni = uzel.potomek;
+        uzel.potomek = null;
+
+        // První průchod: dvojice se řetězí přes sourozence v opačném pořadí.
+        Uchyt<T> dvojice = null;
+        while (aktualni != null) {
+            Uchyt<T> prvni = aktualni;
+            Uchyt<T> druhy = prvni.sourozenec;
+            aktualni = druhy != null ? druhy.sourozenec : null;
+
+            prvni.sourozenec = null;
+            prvni.predchozi = null;
+            if (druhy != null) {
+                druhy.sourozenec = null;
+                druhy.predchozi = null;
+            }
+
+            Uchyt<T> spojeny = spojStromy(prvni, druhy);
+            spojeny.sourozenec = dvojice;
+            dvojice = spojeny;
+        }
+
+        // Druhý průchod: od poslední dvojice k první.
+        Uchyt<T> vysledek = null;
+        while (dvojice != null) {
+            Uchyt<T> dalsi = dvojice.sourozenec;
+            dvojice.sourozenec = null;
+            vysledek = spojStromy(vysledek, dvojice);
+            dvojice = dalsi;
+        }
+
+        return vysledek;
+    }
+
+    /**
+    * Iterator pro procházení stromu haldy do hloubky (preorder traversal).
+    */
+    private class IteratorHloubka implements Iterator<T> {
+
+        private final IAbstrLifo<Uchyt<T>> zasobnik = new AbstrLifo<>();
+
+        public IteratorHloubka() {
+            if (koren != null) {
+                zasobnik.vloz(koren);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !zasobnik.jePrazdny();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            Uchyt<T> aktualni = zasobnik.odeber();
+            if (aktualni.sourozenec != null) {
+                zasobnik.vloz(aktualni.sourozenec);
+            }
+            if (aktualni.potomek != null) {
+                zasobnik.vloz(aktualni.potomek);
+            }
+            return aktualni.prvek;
+        }
+    }
+
+    /**
+    * Iterator pro procházení stromu haldy do šířky (level-order traversal).
+    */
+    private class IteratorSirka implements Iterator<T> {
+
+        private final IAbstrFifo<Uchyt<T>> fronta = new AbstrFifo<>();
+
+        public IteratorSirka() {
+            if (koren != null) {
+                fronta.vloz(koren);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !fronta.jePrazdny();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            Uchyt<T> aktualni = fronta.odeber();
+            for (Uchyt<T> potomek = aktualni.potomek; potomek != null; potomek = potomek.sourozenec) {
+                fronta.vloz(potomek);
+            }
+            return aktualni.prvek;
+        }
+    }
+
+    /**
+    * Iterator pro procházení haldy podle priority, aniž by se halda měnila.
+    * Každý uzel má vyšší prioritu než všichni jeho potomci, pomocná halda
+    * proto obsahuje jen potomky již vrácených uzlů.
+    */
+    private class IteratorPriorita implements Iterator<T> {
+
+        private final AbstrHeap<Uchyt<T>> hranice = new AbstrHeap<>((a, b) -> komparator.compare(a.prvek, b.prvek));
+
+        public IteratorPriorita() {
+            if (koren != null) {
+                hranice.vloz(koren);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !hranice.jePrazdny();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            Uchyt<T> aktualni = hranice.odeberMax();
+            for (Uchyt<T> potomek = aktualni.potomek; potomek != null; potomek = potomek.sourozenec) {
+                hranice.vloz(potomek);
+            }
+            return aktualni.prvek;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package prioritni_fronta;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+* Plánovač úloh s časovým termínem postavený na indexované haldě. Úloha
+* s nejbližším termínem je v kořeni haldy. Jediné obslužné vlákno se uspí
+* (LockSupport.parkNanos) právě do termínu kořene, po jeho uplynutí úlohu
+* odebere a předá ji ke spuštění exekutoru. Pokud přibude úloha s dřívějším
+* termínem, než na jaký obslužné vlákno čeká, plánovač jej probudí.
+*
+* <p>Každá naplánovaná úloha drží úchyt do haldy, zrušení i přeplánování
+* tak stojí O(log n) bez ohledu na počet čekajících úloh. Termíny se
+* počítají v nanosekundách podle System.nanoTime.
+*
+* <p>Obslužné vlákno se spustí až při naplánování první úlohy. Pokud exekutor
+* úlohu odmítne (např. po svém ukončení), plánovač se ukončí a další
+* naplánování skončí výjimkou, jejíž příčinou je chyba exekutoru.
+*/
+public class AbstrPlanovac implements AutoCloseable {
+
+    private final AbstrIndexHeap<Uloha> halda = new AbstrIndexHeap<>(AbstrPlanovac::porovnejTerminy);
+    private final ReentrantLock zamek = new ReentrantLock();
+    private final Executor exekutor;
+    private final Thread obsluha;
+    private volatile boolean bezi = true;
+    private boolean spusteno; // Obslužné vlákno už bylo spuštěno
+    private RuntimeException chybaExekutoru; // Chyba, kvůli které se plánovač ukončil
+    private long poradi; // Pořadí naplánování, rozlišuje úlohy se stejným termínem
+
+    /**
+    * Naplánovaná úloha. Slouží zároveň jako úchyt pro zrušení nebo
+    * přeplánování.
+    */
+    public static final class Uloha {
+
+        private final Runnable akce;
+        private long termin; // Termín spuštění podle System.nanoTime
+        private long poradi;
+        private AbstrIndexHeap.Uchyt<Uloha> uchyt; // Null, pokud úloha není v haldě
+        private final AbstrPlanovac planovac;
+
+        private Uloha(Runnable akce, long termin, AbstrPlanovac planovac) {
+            this.akce = akce;
+            this.termin = termin;
+            this.planovac = planovac;
+        }
+
+        public long getTermin() {
+            return termin;
+        }
+
+        /**
+        * Zjistí, zda úloha stále čeká na spuštění (nebyla spuštěna ani zrušena).
+        *
+        * @return True, pokud úloha čeká na svůj termín, jinak false
+        */
+        public boolean jeNaplanovana() {
+            return uchyt != null && uchyt.jePlatny();
+        }
+    }
+
+    /**
+    * Vytvoří plánovač, který spouští úlohy ve virtuálních vláknech, pokud je
+    * běhové prostředí podporuje (Java 21 a novější), jinak ve společném
+    * fork-join poolu.
+    */
+    public AbstrPlanovac() {
+        this(vychoziExekutor());
+    }
+
+    /**
+    * Vytvoří plánovač, který spouští úlohy daným exekutorem. Obslužné vlákno
+    * se vytvoří, ale spustí se až při prvním naplánování, aby nezačalo
+    * pracovat s nedokončeným plánovačem.
+    *
+    * @param exekutor Exekutor, kterému se předávají úlohy po uplynutí termínu
+    */
+    public AbstrPlanovac(Executor exekutor) {
+        this.exekutor = exekutor;
+        this.obsluha = new Thread(this::obsluhuj, "planovac");
+        this.obsluha.setDaemon(true);
+    }
+
+    /**
+    * Naplánuje úlohu na daný termín.
+    *
+    * @param akce Akce, která se po uplynutí termínu spustí
+    * @param termin Termín spuštění podle System.nanoTime
+    * @return Naplánovaná úloha
+    * @throws IllegalStateException pokud byl plánovač ukončen, případně kvůli
+    * chybě exekutoru
+    */
+    public Uloha naplanuj(Runnable akce, long termin) {
+        Uloha uloha = new Uloha(akce, termin, this);
+
+        zamek.lock();
+        try {
+            if (!bezi) {
+                throw new IllegalStateException("Plánovač byl ukončen!", chybaExekutoru);
+            }
+            if (!spusteno) {
+                obsluha.start();
+                spusteno = true;
+            }
+            uloha.poradi = poradi++;
+            uloha.uchyt = halda.vloz(uloha);
+            probudKdyzJePrvni(uloha);
+        } finally {
+            zamek.unlock();
+        }
+
+        return uloha;
+    }
+
+    /**
+    * Naplánuje úlohu se zpožděním od aktuálního času.
+    *
+    * @param akce Akce, která se po uplynutí zpoždění spustí
+    * @param zpozdeni Zpoždění
+    * @param jednotka Časová jednotka zpoždění
+    * @return Naplánovaná úloha
+    * @throws IllegalStateException pokud byl plánovač ukončen
+    */
+    public Uloha naplanuj(Runnable akce, long zpozdeni, TimeUnit jednotka) {
+        return naplanuj(akce, System.nanoTime() + jednotka.toNanos(zpozdeni));
+    }
+
+    /**
+    * Zruší úlohu, která ještě nebyla spuštěna.
+    *
+    * @param uloha Rušená úloha
+    * @return True, pokud byla úloha zrušena, false, pokud už byla spuštěna nebo zrušena
+    * @throws IllegalArgumentException pokud úloha patří jinému plánovači
+    */
+    public boolean zrus(Uloha uloha) {
+        overUlohu(uloha);
+
+        zamek.lock();
+        try {
+            if (!uloha.jeNaplanovana()) {
+                return false;
+            }
+            halda.odeber(uloha.uchyt);
+            return true;
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Změní termín úlohy, která ještě nebyla spuštěna.
+    *
+    * @param uloha Přeplánovaná úloha
+    * @param novyTermin Nový termín spuštění podle System.nanoTime
+    * @return True, pokud byla úloha přeplánována, false, pokud už byla spuštěna nebo zrušena
+    * @throws IllegalArgumentException pokud úloha patří jinému plánovači
+    */
+    public boolean preplanuj(Uloha uloha, long novyTermin) {
+        overUlohu(uloha);
+
+        zamek.lock();
+        try {
+            if (!uloha.jeNaplanovana()) {
+                return false;
+            }
+            uloha.termin = novyTermin;
+            halda.zmenPrioritu(uloha.uchyt);
+            probudKdyzJePrvni(uloha);
+            return true;
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Vrátí počet úloh, které čekají na svůj termín.
+    *
+    * @return Počet čekajících úloh
+    */
+    public int getPocetCekajicich() {
+        zamek.lock();
+        try {
+            return halda.getVelikost();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Ukončí plánovač. Čekající úlohy se zahodí a už nebudou spuštěny, úlohy
+    * předané exekutoru dobíhají dál.
+    */
+    public void ukonci() {
+        zamek.lock();
+        try {
+            bezi = false;
+            halda.zrus();
+        } finally {
+            zamek.unlock();
+        }
+        LockSupport.unpark(obsluha);
+    }
+
+    @Override
+    public void close() {
+        ukonci();
+    }
+
+    /**
+    * Smyčka obslužného vlákna. Spí do termínu úlohy v kořeni haldy (nebo
+    * bez omezení, pokud je halda prázdná) a úlohy, jejichž termín uplynul,
+    * předává exekutoru. Když exekutor úlohu odmítne, plánovač si chybu
+    * uloží a ukončí se, místo aby vlákno tiše skončilo a nové úlohy se
+    * dál přijímaly.
+    */
+    private void obsluhuj() {
+        while (bezi) {
+            Uloha uloha;
+            long cekani;
+
+            zamek.lock();
+            try {
+                uloha = halda.zpristupniMax();
+                cekani = uloha != null ? uloha.termin - System.nanoTime() : 0;
+                if (uloha != null && cekani <= 0) {
+                    halda.odeberMax();
+                }
+            } finally {
+                zamek.unlock();
+            }
+
+            if (uloha == null) {
+                LockSupport.park(this);
+            } else if (cekani > 0) {
+                LockSupport.parkNanos(this, cekani);
+            } else {
+                try {
+                    exekutor.execute(uloha.akce);
+                } catch (RuntimeException e) {
+                    ukonciChybou(e);
+                }
+            }
+        }
+    }
+
+    /**
+    * Ukončí plánovač kvůli chybě exekutoru a chybu si uloží jako příčinu
+    * pro další pokusy o naplánování.
+    */
+    private void ukonciChybou(RuntimeException chyba) {
+        zamek.lock();
+        try {
+            chybaExekutoru = chyba;
+            bezi = false;
+            halda.zrus();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Probudí obslužné vlákno, pokud se úloha dostala do kořene haldy, tedy
+    * má dřívější termín než úloha, na kterou vlákno čeká. Volající drží zámek.
+    */
+    private void probudKdyzJePrvni(Uloha uloha) {
+        if (halda.zpristupniMaxUchyt() == uloha.uchyt) {
+            LockSupport.unpark(obsluha);
+        }
+    }
+
+    private void overUlohu(Uloha uloha) {
+        if (uloha == null || uloha.planovac != this) {
+            throw new IllegalArgumentException("Úloha nepatří do tohoto plánovače!");
+        }
+    }
+
+    /**
+    * Dřívější termín má vyšší prioritu, při shodě termínů dřívější naplánování.
+    */
+    private static int porovnejTerminy(Uloha a, Uloha b) {
+        int porovnani = Long.compare(b.termin - a.termin, 0);
+        return porovnani != 0 ? porovnani : Long.compare(b.poradi, a.poradi);
+    }
+
+    /**
+    * Vrátí exekutor virtuálních vláken, pokud jej běhové prostředí nabízí,
+    * jinak společný fork-join pool. Metoda se hledá za běhu, aby šel kód
+    * přeložit i pro starší verze Javy.
+    */
+    private static Executor vychoziExekutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return ForkJoinPool.commonPool();
+        }
+    }
+}
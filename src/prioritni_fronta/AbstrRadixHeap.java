@@ -0,0 +1,298 @@
+package prioritni_fronta;
+
+import enumy.eTypProhl;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+import rozhrani.IAbstrHeap;
+
+/**
+* Monotónní prioritní fronta s přihrádkami (radix heap) pro nezáporné
+* celočíselné klíče se známou horní mezí, např. počet osob obce. Prvky se
+* odebírají od nejvyššího klíče, klíč nově vloženého prvku však nesmí být
+* vyšší než klíč naposledy odebraného maxima. Zpřístupnění maxima tuto mez
+* nemění. Přesně
+* tak se frontou prochází spotřebitel, který ji jen vyprazdňuje, případně
+* do ní vkládá prvky s nižší prioritou.
+*
+* <p>Interně se pracuje s relativním klíčem horniMez - klic, který při
+* odebírání roste. Prvek leží v přihrádce podle nejvyššího bitu, ve kterém
+* se jeho relativní klíč liší od naposledy odebraného. Každý prvek se mezi
+* přihrádkami přesune nejvýše 32krát, vložení i odebrání tak stojí O(1)
+* amortizovaně a nepotřebují žádné porovnání prvků.
+*
+* @param <T> Typ prvků ve frontě
+*/
+public class AbstrRadixHeap<T> implements IAbstrHeap<T> {
+
+    private static final int POCET_PRIHRADEK = 32; // Přihrádka 0 a přihrádky podle bitů 0 až 30
+    private static final int VYCHOZI_KAPACITA = 4;
+
+    private final Object[][] prvky = new Object[POCET_PRIHRADEK][];
+    private final int[][] klice = new int[POCET_PRIHRADEK][]; // Relativní klíče prvků v přihrádkách
+    private final int[] pocty = new int[POCET_PRIHRADEK];
+    private int velikost;
+    private int posledni; // Relativní klíč naposledy odebraného maxima
+    private int prihradkaMaxima = -1; // Přihrádka zpřístupněného maxima, -1 pokud není známo
+    private int indexMaxima; // Index zpřístupněného maxima v jeho přihrádce
+    private final ToIntFunction<? super T> klic;
+    private final int horniMez;
+
+    /**
+    * Vytvoří prázdnou frontu pro klíče z intervalu 0 až horniMez.
+    *
+    * @param klic Funkce, která z prvku získá jeho prioritu
+    * @param horniMez Nejvyšší přípustný klíč
+    * @throws IllegalArgumentException pokud je horní mez záporná
+    */
+    public AbstrRadixHeap(ToIntFunction<? super T> klic, int horniMez) {
+        if (horniMez < 0) {
+            throw new IllegalArgumentException("Horní mez klíče nesmí být záporná!");
+        }
+        this.klic = klic;
+        this.horniMez = horniMez;
+        for (int i = 0; i < POCET_PRIHRADEK; i++) {
+            prvky[i] = new Object[VYCHOZI_KAPACITA];
+            klice[i] = new int[VYCHOZI_KAPACITA];
+        }
+    }
+
+    public int getHorniMez() {
+        return horniMez;
+    }
+
+    @Override
+    public int getVelikost() {
+        return velikost;
+    }
+
+    @Override
+    public boolean jePrazdny() {
+        return velikost == 0;
+    }
+
+    /**
+    * Vyprázdní frontu. Prázdná fronta opět přijímá libovolný klíč.
+    */
+    @Override
+    public void zrus() {
+        for (int i = 0; i < POCET_PRIHRADEK; i++) {
+            Arrays.fill(prvky[i], 0, pocty[i], null);
+            pocty[i] = 0;
+        }
+        velikost = 0;
+        posledni = 0;
+        prihradkaMaxima = -1;
+    }
+
+    /**
+    * Vloží prvek do přihrádky podle jeho klíče.
+    *
+    * @param prvek Prvek, který má být vložen
+    * @throws IllegalArgumentException pokud klíč leží mimo interval 0 až
+    * horniMez nebo je vyšší než klíč naposledy odebraného maxima
+    */
+    @Override
+    public void vloz(T prvek) {
+        int klicPrvku = klic.applyAsInt(prvek);
+        if (klicPrvku < 0 || klicPrvku > horniMez) {
+            throw new IllegalArgumentException("Klíč " + klicPrvku + " leží mimo interval 0 až " + horniMez + "!");
+        }
+
+        int relativniKlic = horniMez - klicPrvku;
+        if (relativniKlic < posledni) {
+            throw new IllegalArgumentException("Klíč " + klicPrvku + " je vyšší než klíč naposledy odebraného maxima!");
+        }
+
+        pridej(prihradka(relativniKlic), prvek, relativniKlic);
+        velikost++;
+        prihradkaMaxima = -1;
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou (maximálním klíčem) a vrátí jej.
+    * Prvky se stejným klíčem se odebírají v libovolném pořadí.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T odeberMax() {
+        if (velikost == 0) {
+            return null;
+        }
+        if (pocty[0] == 0) {
+            presypPrihradku();
+        }
+
+        int index = --pocty[0];
+        T prvek = prvek(0, index);
+        prvky[0][index] = null;
+        velikost--;
+        prihradkaMaxima = -1;
+
+        if (velikost == 0) {
+            posledni = 0;
+        }
+        return prvek;
+    }
+
+    /**
+    * Zpřístupní prvek s nejvyšší prioritou. Přihrádky se přitom nepřesypávají,
+    * takže fronta dál přijímá i klíče vyšší než zpřístupněné maximum, pokud
+    * nejsou vyšší než klíč naposledy odebraného maxima.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T zpristupniMax() {
+        if (velikost == 0) {
+            return null;
+        }
+        najdiMaximum();
+        return prvek(prihradkaMaxima, indexMaxima);
+    }
+
+    /**
+    * Zpřístupní klíč prvku s nejvyšší prioritou.
+    *
+    * @return Nejvyšší klíč ve frontě
+    * @throws NoSuchElementException pokud je fronta prázdná
+    */
+    public int zpristupniMaxKlic() {
+        if (velikost == 0) {
+            throw new NoSuchElementException("Fronta je prázdná!");
+        }
+        najdiMaximum();
+        return horniMez - klice[prihradkaMaxima][indexMaxima];
+    }
+
+    /**
+    * Vytvoří iterátor, který prochází prvky po přihrádkách. Prvky v nižší
+    * přihrádce mají vyšší prioritu než prvky ve vyšší přihrádce, uvnitř
+    * přihrádky však seřazené nejsou. Fronta nemá stromovou strukturu, proto
+    * oba typy prohlížení vracejí stejné pořadí.
+    *
+    * @param typProhl Typ prohlížení
+    * @return Iterator pro procházení fronty
+    */
+    public Iterator<T> vypis(eTypProhl typProhl) {
+        return new Iterator<T>() {
+
+            private int prihradka;
+            private int index;
+
+            /**
+            * Metoda zjišťuje, zda existuje další prvek k procházení.
+            *
+            * @return True, pokud existuje další prvek, jinak False
+            */
+            @Override
+            public boolean hasNext() {
+                while (prihradka < POCET_PRIHRADEK && index >= pocty[prihradka]) {
+                    prihradka++;
+                    index = 0;
+                }
+                return prihradka < POCET_PRIHRADEK;
+            }
+
+            /**
+            * Metoda vrátí další prvek v pořadí přihrádek.
+            *
+            * @return Další prvek v iteraci fronty, nebo null, pokud již není žádný
+            */
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    return null;
+                }
+                return prvek(prihradka, index++);
+            }
+        };
+    }
+
+    /**
+    * Vrátí číslo přihrádky pro relativní klíč: 0 pro klíč rovný naposledy
+    * odebranému, jinak pořadí nejvyššího bitu, ve kterém se klíče liší.
+    */
+    private int prihradka(int relativniKlic) {
+        return relativniKlic == posledni ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(relativniKlic ^ posledni);
+    }
+
+    /**
+    * Najde maximum neprázdné fronty bez změny naposledy odebraného klíče:
+    * poslední prvek přihrádky 0, nebo prvek s nejnižším relativním klíčem
+    * v první neprázdné přihrádce. Poloha maxima se pamatuje až do dalšího
+    * vložení nebo odebrání, opakované zpřístupnění tak stojí O(1).
+    */
+    private void najdiMaximum() {
+        if (prihradkaMaxima >= 0) {
+            return;
+        }
+        if (pocty[0] > 0) {
+            prihradkaMaxima = 0;
+            indexMaxima = pocty[0] - 1;
+            return;
+        }
+
+        int i = 1;
+        while (pocty[i] == 0) {
+            i++;
+        }
+        int index = 0;
+        for (int j = 1; j < pocty[i]; j++) {
+            if (klice[i][j] < klice[i][index]) {
+                index = j;
+            }
+        }
+        prihradkaMaxima = i;
+        indexMaxima = index;
+    }
+
+    /**
+    * Najde první neprázdnou přihrádku, její nejnižší relativní klíč prohlásí
+    * za naposledy odebraný a prvky přihrádky rozdělí do nižších přihrádek.
+    * Alespoň prvky s tímto klíčem se tím dostanou do přihrádky 0.
+    */
+    private void presypPrihradku() {
+        int i = 1;
+        while (pocty[i] == 0) {
+            i++;
+        }
+
+        Object[] prvkyPrihradky = prvky[i];
+        int[] klicePrihradky = klice[i];
+        int pocet = pocty[i];
+
+        int minimum = klicePrihradky[0];
+        for (int j = 1; j < pocet; j++) {
+            if (klicePrihradky[j] < minimum) {
+                minimum = klicePrihradky[j];
+            }
+        }
+        posledni = minimum;
+
+        pocty[i] = 0;
+        for (int j = 0; j < pocet; j++) {
+            pridej(prihradka(klicePrihradky[j]), prvkyPrihradky[j], klicePrihradky[j]);
+            prvkyPrihradky[j] = null;
+        }
+    }
+
+    private void pridej(int prihradka, Object prvek, int relativniKlic) {
+        int pocet = pocty[prihradka];
+        if (pocet == prvky[prihradka].length) {
+            prvky[prihradka] = Arrays.copyOf(prvky[prihradka], pocet * 2);
+            klice[prihradka] = Arrays.copyOf(klice[prihradka], pocet * 2);
+        }
+
+        prvky[prihradka][pocet] = prvek;
+        klice[prihradka][pocet] = relativniKlic;
+        pocty[prihradka] = pocet + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T prvek(int prihradka, int index) {
+        return (T) prvky[prihradka][index];
+    }
+}
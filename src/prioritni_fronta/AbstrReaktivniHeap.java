@@ -0,0 +1,311 @@
+package prioritni_fronta;
+
+import java.util.Comparator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import rozhrani.IAbstrHeap;
+
+/**
+* Prioritní fronta, která své prvky sama vydává odběratelům podle rozhraní
+* java.util.concurrent.Flow. Prvky se odebírají v pořadí podle priority
+* a každý odebraný prvek dostanou všichni přihlášení odběratelé. Prvek se
+* odebere jen tehdy, když o další prvek požádali všichni odběratelé, pomalý
+* odběratel tak zdrží odebírání z fronty a prvky nečekají v žádném
+* neomezeném bufferu, ale zůstávají ve frontě. Nově vložený prvek se vydá
+* hned, jakmile na něj mají všichni odběratelé požadavek.
+*
+* <p>Vydávání prvků probíhá vždy jen v jednom vlákně najednou (to, které
+* jej zrovna spustilo vložením, požadavkem nebo zrušením odběru), volání
+* onNext, onError a onComplete jednoho odběratele se tedy nikdy nepřekrývají.
+*
+* @param <T> Typ prvků ve frontě
+*/
+public class AbstrReaktivniHeap<T> implements IAbstrHeap<T>, Flow.Publisher<T> {
+
+    private final AbstrHeap<T> halda;
+    private final ReentrantLock zamek = new ReentrantLock();
+    private final CopyOnWriteArrayList<Odber<T>> odbery = new CopyOnWriteArrayList<>();
+    private final AtomicInteger praceNaVydani = new AtomicInteger(); // Počet nevyřízených podnětů k vydávání
+    private volatile boolean dokonceno;
+
+    /**
+    * Odběr jednoho odběratele, eviduje jeho nevyřízené požadavky.
+    */
+    private static final class Odber<T> implements Flow.Subscription {
+
+        private final AbstrReaktivniHeap<T> fronta;
+        private final Flow.Subscriber<? super T> odberatel;
+        private final AtomicLong pozadavky = new AtomicLong();
+        private volatile boolean prihlasen; // Volání onSubscribe již skončilo
+        private volatile boolean zrusen;
+        private volatile IllegalArgumentException chyba; // Chyba k doručení z vydávacího vlákna
+
+        Odber(AbstrReaktivniHeap<T> fronta, Flow.Subscriber<? super T> odberatel) {
+            this.fronta = fronta;
+            this.odberatel = odberatel;
+        }
+
+        /**
+        * Přidá požadavek na n dalších prvků. Nekladný počet je porušením
+        * pravidel rozhraní Flow, odběr se proto ukončí chybou.
+        */
+        @Override
+        public void request(long n) {
+            if (zrusen) {
+                return;
+            }
+            if (n <= 0) {
+                chyba = new IllegalArgumentException("Počet požadovaných prvků musí být kladný!");
+            } else {
+                pozadavky.accumulateAndGet(n, (puvodni, pridano) -> {
+                    long soucet = puvodni + pridano;
+                    return soucet < 0 ? Long.MAX_VALUE : soucet;
+                });
+            }
+            fronta.vydavej();
+        }
+
+        @Override
+        public void cancel() {
+            zrusen = true;
+            fronta.odbery.remove(this);
+            fronta.vydavej();
+        }
+    }
+
+    public AbstrReaktivniHeap(Comparator<T> komparator) {
+        this.halda = new AbstrHeap<>(komparator);
+    }
+
+    /**
+    * Přihlásí nového odběratele. Odběratel se zaeviduje ještě před voláním
+    * onSubscribe, takže požadavky zadané uvnitř onSubscribe platí od
+    * začátku. Prvky ani ukončovací signály se mu však vydávají až po návratu
+    * z onSubscribe, aby se s ním nepřekrývaly. Odběratel dostává jen prvky
+    * odebrané po jeho přihlášení. Po dokončení fronty dostane rovnou
+    * onComplete. Pokud onSubscribe skončí výjimkou, považuje se odběr za
+    * zrušený (pravidlo 2.13 Reactive Streams), odběratel se odhlásí, aby
+    * nezdržoval vydávání ostatním, a výjimka se předá volajícímu.
+    *
+    * @param odberatel Přihlašovaný odběratel
+    */
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> odberatel) {
+        Odber<T> odber = new Odber<>(this, odberatel);
+        odbery.add(odber);
+        try {
+            odberatel.onSubscribe(odber);
+        } catch (RuntimeException e) {
+            odber.zrusen = true;
+            odbery.remove(odber);
+            throw e;
+        } finally {
+            odber.prihlasen = true;
+            vydavej();
+        }
+    }
+
+    /**
+    * Vloží prvek do fronty a vydá odběratelům vše, o co požádali.
+    *
+    * @param prvek Prvek, který má být vložen
+    * @throws IllegalStateException pokud byla fronta již dokončena
+    */
+    @Override
+    public void vloz(T prvek) {
+        zamek.lock();
+        try {
+            if (dokonceno) {
+                throw new IllegalStateException("Fronta byla dokončena!");
+            }
+            halda.vloz(prvek);
+        } finally {
+            zamek.unlock();
+        }
+        vydavej();
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou mimo odběratele, ti jej nedostanou.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T odeberMax() {
+        zamek.lock();
+        try {
+            return halda.odeberMax();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    @Override
+    public T zpristupniMax() {
+        zamek.lock();
+        try {
+            return halda.zpristupniMax();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    @Override
+    public int getVelikost() {
+        zamek.lock();
+        try {
+            return halda.getVelikost();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    @Override
+    public boolean jePrazdny() {
+        return getVelikost() == 0;
+    }
+
+    @Override
+    public void zrus() {
+        zamek.lock();
+        try {
+            halda.zrus();
+        } finally {
+            zamek.unlock();
+        }
+        vydavej();
+    }
+
+    /**
+    * Ukončí vkládání. Jakmile se fronta vyprázdní, dostanou všichni
+    * odběratelé onComplete.
+    */
+    public void dokonci() {
+        dokonceno = true;
+        vydavej();
+    }
+
+    /**
+    * Vydá odběratelům tolik prvků, kolik jim lze vydat. Pokud už vydávání
+    * běží v jiném vlákně, jen mu předá podnět k dalšímu průchodu. Pokud
+    * vydávání přeruší neočekávaná výjimka (např. z komparátoru), podněty se
+    * vynulují, aby další vložení nebo požadavek vydávání znovu spustil.
+    */
+    private void vydavej() {
+        if (praceNaVydani.getAndIncrement() != 0) {
+            return;
+        }
+
+        int podnety = 1;
+        try {
+            do {
+                dorucChyby();
+
+                while (true) {
+                    @SuppressWarnings("unchecked")
+                    Odber<T>[] prijemci = odbery.toArray(new Odber[0]);
+                    T prvek = odeberProVsechny(prijemci);
+                    if (prvek == null) {
+                        break;
+                    }
+                    for (Odber<T> odber : prijemci) {
+                        dorucPrvek(odber, prvek);
+                    }
+                }
+
+                if (dokonceno && jePrazdny()) {
+                    for (Odber<T> odber : odbery) {
+                        if (odber.prihlasen) {
+                            ukonciOdber(odber, null);
+                        }
+                    }
+                }
+
+                podnety = praceNaVydani.addAndGet(-podnety);
+            } while (podnety != 0);
+        } catch (RuntimeException | Error e) {
+            praceNaVydani.set(0);
+            throw e;
+        }
+    }
+
+    /**
+    * Odebere maximum, pokud existuje alespoň jeden příjemce a všichni jsou
+    * přihlášení a mají nevyřízený požadavek.
+    *
+    * @return Odebraný prvek nebo null, pokud nelze nic vydat
+    */
+    private T odeberProVsechny(Odber<T>[] prijemci) {
+        if (prijemci.length == 0) {
+            return null;
+        }
+        for (Odber<T> odber : prijemci) {
+            if (!odber.prihlasen || odber.pozadavky.get() == 0) {
+                return null;
+            }
+        }
+
+        zamek.lock();
+        try {
+            return halda.odeberMax();
+        } finally {
+            zamek.unlock();
+        }
+    }
+
+    /**
+    * Doručí prvek odběrateli. Odběratel, jehož onNext skončí výjimkou, se
+    * odhlásí a dostane onError s touto výjimkou (pravidlo 2.13 Reactive
+    * Streams).
+    */
+    private void dorucPrvek(Odber<T> odber, T prvek) {
+        if (odber.zrusen) {
+            return;
+        }
+        if (odber.pozadavky.get() != Long.MAX_VALUE) {
+            odber.pozadavky.decrementAndGet();
+        }
+
+        try {
+            odber.odberatel.onNext(prvek);
+        } catch (RuntimeException e) {
+            ukonciOdber(odber, e);
+        }
+    }
+
+    /**
+    * Ukončí chybou odběry, které požádaly o nekladný počet prvků.
+    */
+    private void dorucChyby() {
+        for (Odber<T> odber : odbery) {
+            if (odber.chyba != null && odber.prihlasen) {
+                ukonciOdber(odber, odber.chyba);
+            }
+        }
+    }
+
+    /**
+    * Odhlásí odběr a, pokud ještě nebyl zrušen, doručí odběrateli onError
+    * s danou chybou, nebo onComplete, je-li chyba null. Výjimka z těchto
+    * volání se již jen zahodí, aby nezastavila vydávání ostatním odběratelům.
+    */
+    private void ukonciOdber(Odber<T> odber, Throwable chyba) {
+        odbery.remove(odber);
+        if (odber.zrusen) {
+            return;
+        }
+        odber.zrusen = true;
+        try {
+            if (chyba != null) {
+                odber.odberatel.onError(chyba);
+            } else {
+                odber.odberatel.onComplete();
+            }
+        } catch (RuntimeException e) {
+            // Odběrateli už nelze nic doručit, odběr je zrušen.
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package prioritni_fronta;
+
+import enumy.eTypProhl;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import rozhrani.IAbstrHeap;
+
+/**
+* Neblokující (lock-free) prioritní fronta postavená na seznamu s přeskakováním
+* (skip list). Prvky jsou v seznamu seřazené od nejvyšší priority, maximum je
+* tedy vždy první platný uzel nejnižší úrovně. Všechny změny se provádějí
+* pomocí operací compare-and-set, žádné vlákno nikdy nečeká na zámek.
+*
+* <p>Odebírání je převzaté z fronty Lindéna a Jonssona. Značka odkazu na
+* nejnižší úrovni znamená, že uzel, na který odkaz vede, je odebraný.
+* Odebrání maxima označí odkaz na první neodebraný uzel, odebrané uzly tak
+* vždy tvoří souvislou předponu seznamu. Vkládání zapisuje jen do
+* neoznačeného odkazu, nový uzel se proto vždy připojí za tuto předponu
+* a nemůže se dostat před uzel, který už někdo odebral. Vložení
+* i odebrání se tak projeví v jediném okamžiku (jsou linearizovatelné),
+* odebrání maxima vrátí vždy prvek s nejvyšší prioritou, který byl ve
+* frontě v okamžiku označení odkazu. Předpona se fyzicky odpojí najednou
+* přesunutím odkazu hlavy, až přesáhne PRAH_PREDPONY uzlů, z vyšších
+* úrovní se odebrané uzly odpojují jednotlivě.
+* Prvky se stejnou prioritou se odlišují pořadovým číslem vložení.
+*
+* @param <T> Typ prvků ve frontě
+*/
+public class AbstrSkipListHeap<T> implements IAbstrHeap<T> {
+
+    private static final int MAX_UROVEN = 31; // Nejvyšší index úrovně seznamu
+    private static final int PRAH_PREDPONY = 32; // Délka předpony odebraných uzlů, od které se předpona odpojí
+
+    private final Uzel<T> hlava = new Uzel<>(null, Long.MIN_VALUE, MAX_UROVEN + 1);
+    private final Uzel<T> konec = new Uzel<>(null, Long.MAX_VALUE, MAX_UROVEN + 1);
+    private final AtomicLong poradi = new AtomicLong();
+    private final AtomicInteger velikost = new AtomicInteger();
+    private final AtomicInteger pocetUrovni = new AtomicInteger(1); // Počet úrovní, na kterých už byl některý uzel
+    private final Comparator<T> komparator;
+
+    /**
+    * Uzel seznamu s přeskakováním. Značka odkazu na následníka na vyšších
+    * úrovních označuje, že uzel je z dané úrovně odpojován, na nejnižší
+    * úrovni, že je následník odebraný.
+    */
+    private static final class Uzel<T> {
+
+        final T prvek;
+        final long poradi; // Pořadí vložení, rozlišuje prvky se stejnou prioritou
+        final AtomicMarkableReference<Uzel<T>>[] dalsi;
+
+        @SuppressWarnings("unchecked")
+        Uzel(T prvek, long poradi, int vyska) {
+            this.prvek = prvek;
+            this.poradi = poradi;
+            this.dalsi = new AtomicMarkableReference[vyska];
+            for (int i = 0; i < vyska; i++) {
+                dalsi[i] = new AtomicMarkableReference<>(null, false);
+            }
+        }
+    }
+
+    public AbstrSkipListHeap(Comparator<T> komparator) {
+        this.komparator = komparator;
+        for (int i = 0; i <= MAX_UROVEN; i++) {
+            hlava.dalsi[i].set(konec, false);
+        }
+    }
+
+    /**
+    * Vrátí počet prvků ve frontě. Při souběžných změnách jde o přibližnou hodnotu.
+    *
+    * @return Počet prvků
+    */
+    @Override
+    public int getVelikost() {
+        return velikost.get();
+    }
+
+    @Override
+    public boolean jePrazdny() {
+        return zpristupniMax() == null;
+    }
+
+    /**
+    * Vyprázdní frontu postupným odebráním všech prvků.
+    */
+    @Override
+    public void zrus() {
+        T prvek;
+        do {
+            prvek = odeberMax();
+        } while (prvek != null);
+    }
+
+    /**
+    * Vloží prvek do fronty.
+    *
+    * @param prvek Prvek, který má být vložen
+    */
+    @Override
+    public void vloz(T prvek) {
+        Uzel<T> uzel = new Uzel<>(prvek, poradi.getAndIncrement(), nahodnaVyska());
+        int horniUroven = uzel.dalsi.length - 1;
+        pocetUrovni.accumulateAndGet(uzel.dalsi.length, Math::max);
+        Uzel<T>[] predchudci = noveUzly();
+        Uzel<T>[] naslednici = noveUzly();
+
+        // Uzel se nejprve připojí na nejnižší úroveň, tím se stává součástí fronty.
+        // Odkaz předchůdce nesmí být označený, jinak by uzel mohl předběhnout odebraný uzel.
+        do {
+            najdi(uzel, predchudci, naslednici);
+            for (int uroven = 0; uroven <= horniUroven; uroven++) {
+                uzel.dalsi[uroven].set(naslednici[uroven], false);
+            }
+        } while (!predchudci[0].dalsi[0].compareAndSet(naslednici[0], uzel, false, false));
+        velikost.incrementAndGet();
+
+        for (int uroven = 1; uroven <= horniUroven; uroven++) {
+            while (true) {
+                Uzel<T> naslednik = naslednici[uroven];
+                Uzel<T> puvodni = uzel.dalsi[uroven].getReference();
+                // Pokud už uzel někdo odpojuje, další úrovně se nepřipojují.
+                if (puvodni != naslednik && !uzel.dalsi[uroven].compareAndSet(puvodni, naslednik, false, false)) {
+                    return;
+                }
+                if (uzel.dalsi[uroven].isMarked()) {
+                    return;
+                }
+                if (predchudci[uroven].dalsi[uroven].compareAndSet(naslednik, uzel, false, false)) {
+                    break;
+                }
+                najdi(uzel, predchudci, naslednici);
+            }
+        }
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou. Vlákno projde předponu odebraných
+    * uzlů a označí odkaz na první neodebraný uzel, tím si jej přivlastní.
+    * Pokud se mezitím před něj vložil nový uzel nebo jej odebralo jiné
+    * vlákno, označení selže a pokračuje se od stejného předchůdce.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T odeberMax() {
+        boolean[] oznaceno = {false};
+        Uzel<T> zacatek = hlava.dalsi[0].getReference();
+        Uzel<T> predchudce = hlava;
+        int delkaPredpony = 0;
+
+        while (true) {
+            Uzel<T> uzel = predchudce.dalsi[0].get(oznaceno);
+            if (oznaceno[0]) {
+                predchudce = uzel;
+                delkaPredpony++;
+                continue;
+            }
+            if (uzel == konec) {
+                return null;
+            }
+            if (predchudce.dalsi[0].compareAndSet(uzel, uzel, false, true)) {
+                velikost.decrementAndGet();
+                if (delkaPredpony >= PRAH_PREDPONY) {
+                    // Hlava se přesune na posledního odebraného předchůdce, odkaz zůstává označený.
+                    hlava.dalsi[0].compareAndSet(zacatek, predchudce, true, true);
+                }
+                odpojZVyssichUrovni(uzel);
+                return uzel.prvek;
+            }
+        }
+    }
+
+    /**
+    * Zpřístupní prvek s nejvyšší prioritou, aniž by čekal na ostatní vlákna.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T zpristupniMax() {
+        Uzel<T> uzel = prvniPlatnyZa(hlava);
+        return uzel != konec ? uzel.prvek : null;
+    }
+
+    /**
+    * Vytvoří iterátor, který prochází prvky nejnižší úrovně seznamu, tedy
+    * v pořadí podle priority. Seznam nemá stromovou strukturu, proto všechny
+    * typy prohlížení vracejí stejné pořadí. Iterátor nevyhazuje výjimku při
+    * souběžných změnách, odebrané prvky přeskakuje.
+    *
+    * @param typProhl Typ prohlížení
+    * @return Iterator pro procházení fronty
+    */
+    public Iterator<T> vypis(eTypProhl typProhl) {
+        return new Iterator<T>() {
+
+            private Uzel<T> aktualni = prvniPlatnyZa(hlava);
+
+            /**
+            * Metoda zjišťuje, zda existuje další prvek k procházení.
+            *
+            * @return True, pokud existuje další prvek, jinak False
+            */
+            @Override
+            public boolean hasNext() {
+                return aktualni != konec;
+            }
+
+            /**
+            * Metoda vrátí prvek aktuálního uzlu a posune se na další
+            * neodebraný uzel nejnižší úrovně.
+            *
+            * @return Další prvek v iteraci fronty, nebo null, pokud již není žádný
+            */
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    return null;
+                }
+                T vysledek = aktualni.prvek;
+                aktualni = prvniPlatnyZa(aktualni);
+                return vysledek;
+            }
+        };
+    }
+
+    /**
+    * Vrátí první neodebraný uzel za daným uzlem nejnižší úrovně, nebo konec
+    * seznamu. Odebrané uzly tvoří předponu, stačí tedy přeskočit označené
+    * odkazy.
+    */
+    private Uzel<T> prvniPlatnyZa(Uzel<T> uzel) {
+        boolean[] oznaceno = {false};
+        Uzel<T> naslednik = uzel.dalsi[0].get(oznaceno);
+        while (oznaceno[0]) {
+            naslednik = naslednik.dalsi[0].get(oznaceno);
+        }
+        return naslednik;
+    }
+
+    /**
+    * Fyzicky odpojí odebraný uzel z vyšších úrovní. Nejprve označí jeho
+    * odkazy na následníky shora dolů a průchodem seznamu pak uzel odstraní
+    * z cest ostatních vláken. Z nejnižší úrovně se uzel odpojí až spolu
+    * s celou předponou odebraných uzlů.
+    */
+    private void odpojZVyssichUrovni(Uzel<T> uzel) {
+        if (uzel.dalsi.length == 1) {
+            return;
+        }
+        boolean[] oznaceno = {false};
+
+        for (int uroven = uzel.dalsi.length - 1; uroven >= 1; uroven--) {
+            Uzel<T> naslednik = uzel.dalsi[uroven].get(oznaceno);
+            while (!oznaceno[0]) {
+                uzel.dalsi[uroven].attemptMark(naslednik, true);
+                naslednik = uzel.dalsi[uroven].get(oznaceno);
+            }
+        }
+
+        najdi(uzel, noveUzly(), noveUzly());
+    }
+
+    /**
+    * Najde na každé úrovni poslední uzel před daným uzlem a první uzel za
+    * ním. Hledání začíná na nejvyšší obsazené úrovni. Na vyšších úrovních
+    * cestou odpojuje označené uzly, na nejnižší úrovni přeskakuje předponu
+    * odebraných uzlů, takže předchůdcem je nejvýše poslední odebraný uzel.
+    *
+    * @param uzel Hledaný uzel
+    * @param predchudci Pole, do kterého se uloží předchůdci na každé úrovni
+    * @param naslednici Pole, do kterého se uloží následníci na každé úrovni
+    */
+    private void najdi(Uzel<T> uzel, Uzel<T>[] predchudci, Uzel<T>[] naslednici) {
+        boolean[] oznaceno = {false};
+
+        int horniUroven = pocetUrovni.get() - 1;
+
+        opakuj:
+        while (true) {
+            Uzel<T> predchudce = hlava;
+            for (int uroven = horniUroven; uroven >= 1; uroven--) {
+                Uzel<T> aktualni = predchudce.dalsi[uroven].getReference();
+                while (true) {
+                    Uzel<T> naslednik = aktualni.dalsi[uroven].get(oznaceno);
+                    while (oznaceno[0]) {
+                        if (!predchudce.dalsi[uroven].compareAndSet(aktualni, naslednik, false, false)) {
+                            continue opakuj;
+                        }
+                        aktualni = naslednik;
+                        naslednik = aktualni.dalsi[uroven].get(oznaceno);
+                    }
+                    if (jePred(aktualni, uzel)) {
+                        predchudce = aktualni;
+                        aktualni = naslednik;
+                    } else {
+                        break;
+                    }
+                }
+                predchudci[uroven] = predchudce;
+                naslednici[uroven] = aktualni;
+            }
+
+            Uzel<T> aktualni = predchudce.dalsi[0].get(oznaceno);
+            while (oznaceno[0] || jePred(aktualni, uzel)) {
+                predchudce = aktualni;
+                aktualni = aktualni.dalsi[0].get(oznaceno);
+            }
+            predchudci[0] = predchudce;
+            naslednici[0] = aktualni;
+            return;
+        }
+    }
+
+    /**
+    * Zjistí, zda uzel a leží v seznamu před uzlem b, tedy zda má vyšší
+    * prioritu, případně stejnou prioritu a dřívější vložení.
+    */
+    private boolean jePred(Uzel<T> a, Uzel<T> b) {
+        if (a == hlava || b == konec) {
+            return true;
+        }
+        if (a == konec || a == b) {
+            return false;
+        }
+        int porovnani = komparator.compare(a.prvek, b.prvek);
+        if (porovnani != 0) {
+            return porovnani > 0;
+        }
+        return a.poradi < b.poradi;
+    }
+
+    /**
+    * Vrátí náhodnou výšku nového uzlu, každá další úroveň má poloviční pravděpodobnost.
+    */
+    private static int nahodnaVyska() {
+        int nahodneBity = ThreadLocalRandom.current().nextInt();
+        return Math.min(Integer.numberOfTrailingZeros(nahodneBity), MAX_UROVEN) + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Uzel<T>[] noveUzly() {
+        return new Uzel[MAX_UROVEN + 1];
+    }
+}
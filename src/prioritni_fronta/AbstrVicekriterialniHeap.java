@@ -0,0 +1,429 @@
+package prioritni_fronta;
+
+import enumy.eTypProhl;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import rozhrani.IAbstrHeap;
+
+/**
+* Prioritní fronta, která udržuje současně několik uspořádání podle různých
+* komparátorů nad jedním společným úložištěm prvků. Pro každý registrovaný
+* komparátor existuje samostatná halda indexů do úložiště, všechny haldy se
+* aktualizují při vložení i odebrání. Přepnutí aktivního uspořádání je tak
+* pouhé přepnutí ukazatele v čase O(1), bez reorganizace celé haldy.
+*
+* <p>Vložení a odebrání stojí O(r log n), kde r je počet registrovaných
+* uspořádání.
+*
+* @param <T> Typ prvků ve frontě
+*/
+public class AbstrVicekriterialniHeap<T> implements IAbstrHeap<T> {
+
+    private static final int VYCHOZI_KAPACITA = 16;
+
+    private Object[] prvky; // Společné úložiště prvků, index = slot
+    private int[] volneSloty; // Zásobník uvolněných slotů
+    private int pocetVolnych;
+    private int pocetSlotu; // Počet dosud použitých slotů
+    private int velikost;
+
+    private Razeni<T>[] razeni;
+    private int pocetRazeni;
+    private int aktivni = -1;
+
+    /**
+    * Jedno uspořádání prvků: binární halda slotů a zpětná mapa ze slotu na
+    * pozici v haldě.
+    */
+    private static final class Razeni<T> {
+
+        final Comparator<T> komparator;
+        int[] halda; // Pozice v haldě -> slot
+        int[] pozice; // Slot -> pozice v haldě
+
+        Razeni(Comparator<T> komparator, int kapacita) {
+            this.komparator = komparator;
+            this.halda = new int[kapacita];
+            this.pozice = new int[kapacita];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public AbstrVicekriterialniHeap() {
+        this.prvky = new Object[VYCHOZI_KAPACITA];
+        this.volneSloty = new int[VYCHOZI_KAPACITA];
+        this.razeni = new Razeni[2];
+    }
+
+    /**
+    * Zaregistruje nové uspořádání. Halda pro něj se vybuduje nad prvky,
+    * které už ve frontě jsou, v čase O(n). První registrované uspořádání se
+    * stane aktivním.
+    *
+    * @param komparator Komparátor nového uspořádání
+    * @return Číslo uspořádání, kterým se uspořádání přepíná
+    */
+    public int pridejRazeni(Comparator<T> komparator) {
+        if (pocetRazeni == razeni.length) {
+            razeni = Arrays.copyOf(razeni, razeni.length * 2);
+        }
+
+        Razeni<T> nove = new Razeni<>(komparator, prvky.length);
+        int pocet = 0;
+        for (int slot = 0; slot < pocetSlotu; slot++) {
+            if (prvky[slot] != null) {
+                nove.halda[pocet] = slot;
+                nove.pozice[slot] = pocet;
+                pocet++;
+            }
+        }
+        for (int i = velikost / 2 - 1; i >= 0; i--) {
+            traversujDolu(nove, i);
+        }
+
+        razeni[pocetRazeni] = nove;
+        if (aktivni < 0) {
+            aktivni = pocetRazeni;
+        }
+        return pocetRazeni++;
+    }
+
+    /**
+    * Přepne aktivní uspořádání, podle kterého se odebírá a zpřístupňuje maximum.
+    *
+    * @param cisloRazeni Číslo uspořádání vrácené metodou pridejRazeni
+    * @throws IllegalArgumentException pokud takové uspořádání neexistuje
+    */
+    public void prepniRazeni(int cisloRazeni) {
+        if (cisloRazeni < 0 || cisloRazeni >= pocetRazeni) {
+            throw new IllegalArgumentException("Uspořádání s číslem " + cisloRazeni + " neexistuje!");
+        }
+        aktivni = cisloRazeni;
+    }
+
+    public int getAktivniRazeni() {
+        return aktivni;
+    }
+
+    @Override
+    public int getVelikost() {
+        return velikost;
+    }
+
+    @Override
+    public boolean jePrazdny() {
+        return velikost == 0;
+    }
+
+    /**
+    * Vyprázdní frontu, registrovaná uspořádání zůstávají zachována.
+    */
+    @Override
+    public void zrus() {
+        Arrays.fill(prvky, 0, pocetSlotu, null);
+        pocetSlotu = 0;
+        pocetVolnych = 0;
+        velikost = 0;
+    }
+
+    /**
+    * Vloží prvek do společného úložiště a do haldy každého uspořádání.
+    * Prázdný odkaz (null) se nevkládá.
+    *
+    * @param prvek Prvek, který má být vložen
+    * @throws IllegalStateException pokud není registrováno žádné uspořádání
+    */
+    @Override
+    public void vloz(T prvek) {
+        if (pocetRazeni == 0) {
+            throw new IllegalStateException("Fronta nemá registrované žádné uspořádání!");
+        }
+        if (prvek == null) {
+            return;
+        }
+
+        int slot = pridelSlot();
+        prvky[slot] = prvek;
+
+        for (int r = 0; r < pocetRazeni; r++) {
+            Razeni<T> aktualni = razeni[r];
+            aktualni.halda[velikost] = slot;
+            aktualni.pozice[slot] = velikost;
+        }
+        velikost++;
+
+        for (int r = 0; r < pocetRazeni; r++) {
+            traversujNahoru(razeni[r], velikost - 1);
+        }
+    }
+
+    /**
+    * Odebere prvek s nejvyšší prioritou podle aktivního uspořádání a odstraní
+    * jej i ze všech ostatních uspořádání.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T odeberMax() {
+        if (velikost == 0) {
+            return null;
+        }
+
+        int slot = razeni[aktivni].halda[0];
+        T prvek = prvek(slot);
+
+        velikost--;
+        for (int r = 0; r < pocetRazeni; r++) {
+            odeberZRazeni(razeni[r], razeni[r].pozice[slot]);
+        }
+
+        prvky[slot] = null;
+        volneSloty[pocetVolnych++] = slot;
+
+        return prvek;
+    }
+
+    /**
+    * Zpřístupní prvek s nejvyšší prioritou podle aktivního uspořádání.
+    *
+    * @return Prvek s nejvyšší prioritou nebo null, pokud je fronta prázdná
+    */
+    @Override
+    public T zpristupniMax() {
+        return velikost > 0 ? prvek(razeni[aktivni].halda[0]) : null;
+    }
+
+    /**
+    * Vytvoří a vrátí iterator pro procházení haldy aktivního uspořádání
+    * podle zvoleného typu prohlížení.
+    *
+    * @param typProhl Typ prohlížení, zda do hloubky, do šířky nebo podle priority
+    * @return Iterator pro procházení haldy
+    */
+    public Iterator<T> vypis(eTypProhl typProhl) {
+        switch (typProhl) {
+            case HLOUBKA:
+                return new IteratorHloubka();
+            case SIRKA:
+                return new IteratorSirka();
+            case PRIORITA:
+                return new IteratorPriorita();
+            default:
+                System.out.println("Neznámý typ prohlížení.");
+                return null;
+        }
+    }
+
+    /**
+    * Odebere z haldy uspořádání prvek na dané pozici, na jeho místo přesune
+    * poslední prvek haldy. Velikost fronty už musí být snížena.
+    */
+    private void odeberZRazeni(Razeni<T> r, int pozice) {
+        if (pozice == velikost) {
+            return;
+        }
+
+        int posledniSlot = r.halda[velikost];
+        r.halda[pozice] = posledniSlot;
+        r.pozice[posledniSlot] = pozice;
+
+        traversujNahoru(r, pozice);
+        traversujDolu(r, r.pozice[posledniSlot]);
+    }
+
+    /**
+    * Vrátí volný slot úložiště, přednostně dříve uvolněný.
+    */
+    private int pridelSlot() {
+        if (pocetVolnych > 0) {
+            return volneSloty[--pocetVolnych];
+        }
+
+        if (pocetSlotu == prvky.length) {
+            int novaKapacita = prvky.length * 2;
+            prvky = Arrays.copyOf(prvky, novaKapacita);
+            volneSloty = Arrays.copyOf(volneSloty, novaKapacita);
+            for (int r = 0; r < pocetRazeni; r++) {
+                razeni[r].halda = Arrays.copyOf(razeni[r].halda, novaKapacita);
+                razeni[r].pozice = Arrays.copyOf(razeni[r].pozice, novaKapacita);
+            }
+        }
+        return pocetSlotu++;
+    }
+
+    private void traversujNahoru(Razeni<T> r, int pozice) {
+        int slot = r.halda[pozice];
+        T prvek = prvek(slot);
+
+        while (pozice > 0) {
+            int rodic = (pozice - 1) / 2;
+            int slotRodice = r.halda[rodic];
+            if (r.komparator.compare(prvek, prvek(slotRodice)) <= 0) {
+                break;
+            }
+            r.halda[pozice] = slotRodice;
+            r.pozice[slotRodice] = pozice;
+            pozice = rodic;
+        }
+
+        r.halda[pozice] = slot;
+        r.pozice[slot] = pozice;
+    }
+
+    private void traversujDolu(Razeni<T> r, int pozice) {
+        int slot = r.halda[pozice];
+        T prvek = prvek(slot);
+
+        while (true) {
+            int potomek = 2 * pozice + 1;
+            if (potomek >= velikost) {
+                break;
+            }
+            if (potomek + 1 < velikost && r.komparator.compare(prvek(r.halda[potomek + 1]), prvek(r.halda[potomek])) > 0) {
+                potomek++;
+            }
+            int slotPotomka = r.halda[potomek];
+            if (r.komparator.compare(prvek(slotPotomka), prvek) <= 0) {
+                break;
+            }
+            r.halda[pozice] = slotPotomka;
+            r.pozice[slotPotomka] = pozice;
+            pozice = potomek;
+        }
+
+        r.halda[pozice] = slot;
+        r.pozice[slot] = pozice;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T prvek(int slot) {
+        return (T) prvky[slot];
+    }
+
+    /**
+    * Iterator pro procházení haldy aktivního uspořádání do hloubky (preorder traversal).
+    */
+    private class IteratorHloubka implements Iterator<T> {
+
+        private int[] zasobnik = new int[VYCHOZI_KAPACITA];
+        private int vrchol;
+
+        public IteratorHloubka() {
+            if (velikost != 0) {
+                zasobnik[vrchol++] = 0;
+            }
+        }
+
+        /**
+        * Metoda zjišťuje, zda existuje další prvek k procházení.
+        *
+        * @return True, pokud existuje další prvek, jinak False
+        */
+        @Override
+        public boolean hasNext() {
+            return vrchol > 0;
+        }
+
+        /**
+        * Metoda vrátí následující prvek aktivního uspořádání v pořadí procházení
+        * do hloubky.
+        *
+        * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
+        */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            int aktualni = zasobnik[--vrchol];
+            for (int potomek = Math.min(2 * aktualni + 2, velikost - 1); potomek >= 2 * aktualni + 1; potomek--) {
+                if (vrchol == zasobnik.length) {
+                    zasobnik = Arrays.copyOf(zasobnik, zasobnik.length * 2);
+                }
+                zasobnik[vrchol++] = potomek;
+            }
+            return prvek(razeni[aktivni].halda[aktualni]);
+        }
+    }
+
+    /**
+    * Iterator pro procházení haldy aktivního uspořádání do šířky (level-order traversal).
+    */
+    private class IteratorSirka implements Iterator<T> {
+
+        private int aktualni;
+
+        /**
+        * Metoda zjišťuje, zda existuje další prvek k procházení.
+        *
+        * @return True, pokud existuje další prvek, jinak False
+        */
+        @Override
+        public boolean hasNext() {
+            return aktualni < velikost;
+        }
+
+        /**
+        * Metoda vrátí následující prvek aktivního uspořádání v pořadí procházení
+        * do šířky, které odpovídá pořadí pozic v haldě uspořádání.
+        *
+        * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
+        */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+            return prvek(razeni[aktivni].halda[aktualni++]);
+        }
+    }
+
+    /**
+    * Iterator pro procházení podle priority aktivního uspořádání, aniž by se
+    * halda měnila. Pomocná halda pozic obsahuje potomky již vrácených prvků,
+    * zpřístupnění prvních k prvků tak stojí O(k log k).
+    */
+    private class IteratorPriorita implements Iterator<T> {
+
+        private final Razeni<T> r = aktivni >= 0 ? razeni[aktivni] : null;
+        private final AbstrHeap<Integer> hranice = new AbstrHeap<>(
+                (a, b) -> r.komparator.compare(prvek(r.halda[a]), prvek(r.halda[b])));
+
+        public IteratorPriorita() {
+            if (velikost != 0) {
+                hranice.vloz(0);
+            }
+        }
+
+        /**
+        * Metoda zjišťuje, zda existuje další prvek k procházení.
+        *
+        * @return True, pokud existuje další prvek, jinak False
+        */
+        @Override
+        public boolean hasNext() {
+            return !hranice.jePrazdny();
+        }
+
+        /**
+        * Metoda vrátí prvek s nejvyšší prioritou aktivního uspořádání, který
+        * ještě nebyl vrácen, a na hranici přidá jeho potomky.
+        *
+        * @return Další prvek v iteraci haldy, nebo null, pokud již není žádný
+        */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            int aktualni = hranice.odeberMax();
+            for (int potomek = 2 * aktualni + 1; potomek <= Math.min(2 * aktualni + 2, velikost - 1); potomek++) {
+                hranice.vloz(potomek);
+            }
+            return prvek(r.halda[aktualni]);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package rozhrani;
+
+
+public interface IAbstrHeap<T> {
+
+    void zrus();
+
+    boolean jePrazdny();
+
+    int getVelikost();
+
+    void vloz(T prvek);
+
+    T odeberMax();
+
+    T zpristupniMax();
+}
@@ -0,0 +1,13 @@
+package rozhrani;
+
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public interface IKodek<T> {
+    
+    void zapis(T prvek, DataOutput vystup) throws IOException;
+
+    T cti(DataInput vstup) throws IOException;
+}
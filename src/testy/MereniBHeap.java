@@ -0,0 +1,89 @@
+package testy;
+
+import enumy.eRozlozeniHaldy;
+import java.util.Comparator;
+import java.util.Random;
+import prioritni_fronta.AbstrHeap;
+
+/**
+ * Srovnávací měření rozložení haldy AbstrHeap v poli: po úrovních a po
+ * blocích (B-heap). Pro každý zadaný počet prvků se měří dvě zátěže:
+ * - vybudování: halda se vybuduje z pole náhodných prvků,
+ * - ustálený provoz: z vybudované haldy se milionkrát odebere maximum
+ *   a vloží nový náhodný prvek, velikost haldy se tedy nemění.
+ * Prvky se vybírají ze zásoby 2^16 předem vytvořených objektů Integer, takže
+ * se samotné prvky vejdou do cache a měření ukazuje hlavně přístupy do pole
+ * haldy. Každé měření se několikrát zopakuje na zahřátí JIT a vypíše se
+ * nejlepší čas. Halda o 10^8 prvcích potřebuje JVM s haldou alespoň 2 GB
+ * (např. java -Xmx3g).
+ *
+ * Spuštění: java testy.MereniBHeap [arita] [pocetPrvku...]
+ */
+
+public class MereniBHeap {
+
+    private static final int POCET_OPAKOVANI = 3; // Budování největších hald trvá desítky sekund
+    private static final int POCET_KROKU = 1_000_000;
+    private static final int VELIKOST_ZASOBY = 1 << 16;
+    private static final Comparator<Integer> KOMPARATOR = Comparator.naturalOrder();
+
+    public static void main(String[] args) {
+        int arita = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int[] pocty = {1_000_000, 10_000_000, 100_000_000};
+        if (args.length > 1) {
+            pocty = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                pocty[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        Random nahoda = new Random(42);
+        Integer[] zasoba = new Integer[VELIKOST_ZASOBY];
+        for (int i = 0; i < zasoba.length; i++) {
+            zasoba[i] = nahoda.nextInt();
+        }
+        int[] poradiVkladani = new int[POCET_KROKU];
+        for (int i = 0; i < poradiVkladani.length; i++) {
+            poradiVkladani[i] = nahoda.nextInt(VELIKOST_ZASOBY);
+        }
+
+        for (int pocetPrvku : pocty) {
+            Integer[] data = new Integer[pocetPrvku];
+            for (int i = 0; i < pocetPrvku; i++) {
+                data[i] = zasoba[nahoda.nextInt(VELIKOST_ZASOBY)];
+            }
+
+            System.out.println("Halda s aritou " + arita + " a " + pocetPrvku + " prvky:");
+            long kontrola = 0; // Zabrání odstranění měřeného kódu optimalizací
+            for (eRozlozeniHaldy rozlozeni : eRozlozeniHaldy.values()) {
+                long budovani = Long.MAX_VALUE;
+                long provoz = Long.MAX_VALUE;
+
+                for (int opakovani = 0; opakovani < POCET_OPAKOVANI; opakovani++) {
+                    AbstrHeap<Integer> halda = new AbstrHeap<>(KOMPARATOR, arita, rozlozeni);
+
+                    long zacatek = System.nanoTime();
+                    halda.vybuduj(data, KOMPARATOR);
+                    budovani = Math.min(budovani, System.nanoTime() - zacatek);
+
+                    zacatek = System.nanoTime();
+                    kontrola += ustalenyProvoz(halda, zasoba, poradiVkladani);
+                    provoz = Math.min(provoz, System.nanoTime() - zacatek);
+                }
+
+                System.out.println("  " + rozlozeni + ": vybudování " + budovani / 1_000_000 + " ms, "
+                        + POCET_KROKU + "x odebrání a vložení " + provoz / 1_000_000 + " ms");
+            }
+            System.out.println("  (kontrolní součet " + kontrola + ")");
+        }
+    }
+
+    private static long ustalenyProvoz(AbstrHeap<Integer> halda, Integer[] zasoba, int[] poradiVkladani) {
+        long soucet = 0;
+        for (int index : poradiVkladani) {
+            soucet += halda.odeberMax();
+            halda.vloz(zasoba[index]);
+        }
+        return soucet;
+    }
+}
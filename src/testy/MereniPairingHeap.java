@@ -0,0 +1,122 @@
+package testy;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+import prioritni_fronta.AbstrHeap;
+import prioritni_fronta.AbstrPairingHeap;
+import rozhrani.IAbstrHeap;
+
+/**
+ * Srovnávací měření párovací haldy AbstrPairingHeap s haldou v poli
+ * AbstrHeap ve dvou zátěžích:
+ * - vkládání: vloží se n náhodných čísel a potom se všechna odeberou,
+ * - spojování: vytvoří se k krajských front po n / k prvcích, ty se spojí do
+ *   jedné celostátní fronty a z ní se odebere prvních k prvků. Halda v poli
+ *   spojuje zkopírováním obou polí do nového vybudování, párovací halda
+ *   metodou spoj.
+ * Každé měření se několikrát zopakuje na zahřátí JIT a vypíše se nejlepší čas.
+ *
+ * Spuštění: java testy.MereniPairingHeap [pocetPrvku] [pocetKraju]
+ */
+
+public class MereniPairingHeap {
+
+    private static final int POCET_OPAKOVANI = 5;
+    private static final Comparator<Integer> KOMPARATOR = Comparator.naturalOrder();
+
+    public static void main(String[] args) {
+        int pocetPrvku = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int pocetKraju = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        Integer[] data = new Integer[pocetPrvku];
+        Random nahoda = new Random(42);
+        for (int i = 0; i < pocetPrvku; i++) {
+            data[i] = nahoda.nextInt();
+        }
+
+        long poleVkladani = Long.MAX_VALUE;
+        long parovaciVkladani = Long.MAX_VALUE;
+        long poleSpojovani = Long.MAX_VALUE;
+        long parovaciSpojovani = Long.MAX_VALUE;
+        long kontrola = 0; // Zabrání odstranění měřeného kódu optimalizací
+
+        for (int opakovani = 0; opakovani < POCET_OPAKOVANI; opakovani++) {
+            long zacatek = System.nanoTime();
+            kontrola += vkladani(new AbstrHeap<>(KOMPARATOR), data);
+            poleVkladani = Math.min(poleVkladani, System.nanoTime() - zacatek);
+
+            zacatek = System.nanoTime();
+            kontrola += vkladani(new AbstrPairingHeap<>(KOMPARATOR), data);
+            parovaciVkladani = Math.min(parovaciVkladani, System.nanoTime() - zacatek);
+
+            zacatek = System.nanoTime();
+            kontrola += spojovaniPole(data, pocetKraju);
+            poleSpojovani = Math.min(poleSpojovani, System.nanoTime() - zacatek);
+
+            zacatek = System.nanoTime();
+            kontrola += spojovaniParovaci(data, pocetKraju);
+            parovaciSpojovani = Math.min(parovaciSpojovani, System.nanoTime() - zacatek);
+        }
+
+        System.out.println("Vkládání " + pocetPrvku + " prvků a odebrání všech:");
+        System.out.println("  AbstrHeap        " + poleVkladani / 1_000_000 + " ms");
+        System.out.println("  AbstrPairingHeap " + parovaciVkladani / 1_000_000 + " ms");
+        System.out.println("Spojení " + pocetKraju + " front po " + pocetPrvku / pocetKraju + " prvcích:");
+        System.out.println("  AbstrHeap        " + poleSpojovani / 1_000_000 + " ms");
+        System.out.println("  AbstrPairingHeap " + parovaciSpojovani / 1_000_000 + " ms");
+        System.out.println("(kontrolní součet " + kontrola + ")");
+    }
+
+    private static long vkladani(IAbstrHeap<Integer> halda, Integer[] data) {
+        for (Integer cislo : data) {
+            halda.vloz(cislo);
+        }
+        return odeberPrvni(halda, data.length);
+    }
+
+    /**
+    * Postupně připojuje krajské fronty k celostátní tak, jak to dnes dělá
+    * agenda: obsah obou hald se zkopíruje do nového pole a znovu vybuduje.
+    */
+    private static long spojovaniPole(Integer[] data, int pocetKraju) {
+        int velikostKraje = data.length / pocetKraju;
+        AbstrHeap<Integer> celostatni = new AbstrHeap<>(KOMPARATOR);
+        celostatni.vybuduj(new Integer[0], KOMPARATOR);
+
+        for (int kraj = 0; kraj < pocetKraju; kraj++) {
+            AbstrHeap<Integer> krajska = new AbstrHeap<>(KOMPARATOR);
+            for (int i = kraj * velikostKraje; i < (kraj + 1) * velikostKraje; i++) {
+                krajska.vloz(data[i]);
+            }
+
+            Integer[] spojene = Stream.concat(celostatni.stream(), krajska.stream()).toArray(Integer[]::new);
+            celostatni.vybuduj(spojene, KOMPARATOR);
+        }
+
+        return odeberPrvni(celostatni, pocetKraju);
+    }
+
+    private static long spojovaniParovaci(Integer[] data, int pocetKraju) {
+        int velikostKraje = data.length / pocetKraju;
+        AbstrPairingHeap<Integer> celostatni = new AbstrPairingHeap<>(KOMPARATOR);
+
+        for (int kraj = 0; kraj < pocetKraju; kraj++) {
+            AbstrPairingHeap<Integer> krajska = new AbstrPairingHeap<>(KOMPARATOR);
+            for (int i = kraj * velikostKraje; i < (kraj + 1) * velikostKraje; i++) {
+                krajska.vloz(data[i]);
+            }
+            celostatni.spoj(krajska);
+        }
+
+        return odeberPrvni(celostatni, pocetKraju);
+    }
+
+    private static long odeberPrvni(IAbstrHeap<Integer> halda, int pocet) {
+        long soucet = 0;
+        for (int i = 0; i < pocet && !halda.jePrazdny(); i++) {
+            soucet += halda.odeberMax();
+        }
+        return soucet;
+    }
+}
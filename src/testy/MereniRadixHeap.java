@@ -0,0 +1,138 @@
+package testy;
+
+import data.Obec;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import prioritni_fronta.AbstrHeap;
+import prioritni_fronta.AbstrRadixHeap;
+import rozhrani.IAbstrHeap;
+
+/**
+ * Srovnávací měření monotónní fronty AbstrRadixHeap s haldou AbstrHeap
+ * řazenou komparátorem podle počtu osob. Obce se načtou ze souboru
+ * kraje.csv a rozmnoží se na zadaný počet tak, že každá kopie dostane
+ * náhodně posunutý počet osob, rozdělení priorit tedy odpovídá skutečným
+ * datům. Měří se dvě zátěže:
+ * - vyprázdnění: vloží se všechny obce a potom se všechny odeberou,
+ * - monotónní průběh: z fronty se odebírá a za každou odebranou obec se
+ *   s poloviční pravděpodobností vloží nová s nižším nebo stejným počtem
+ *   osob, jako to dělá spotřebitel, který frontu postupně vyprazdňuje.
+ * Každé měření se několikrát zopakuje na zahřátí JIT a vypíše se nejlepší čas.
+ *
+ * Spuštění: java testy.MereniRadixHeap [soubor] [pocetObci]
+ */
+
+public class MereniRadixHeap {
+
+    private static final int POCET_OPAKOVANI = 5;
+    private static final Comparator<Obec> KOMPARATOR = Comparator.comparingInt(Obec::getPocetOsob);
+
+    public static void main(String[] args) throws IOException {
+        String soubor = args.length > 0 ? args[0] : "kraje.csv";
+        int pocetObci = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        Obec[] obce = rozmnoz(nacti(soubor), pocetObci);
+        int horniMez = 0;
+        for (Obec obec : obce) {
+            horniMez = Math.max(horniMez, obec.getPocetOsob());
+        }
+
+        long komparatorVyprazdneni = Long.MAX_VALUE;
+        long radixVyprazdneni = Long.MAX_VALUE;
+        long komparatorPrubeh = Long.MAX_VALUE;
+        long radixPrubeh = Long.MAX_VALUE;
+        long kontrola = 0; // Zabrání odstranění měřeného kódu optimalizací
+
+        for (int opakovani = 0; opakovani < POCET_OPAKOVANI; opakovani++) {
+            long zacatek = System.nanoTime();
+            kontrola += vyprazdneni(new AbstrHeap<>(KOMPARATOR), obce);
+            komparatorVyprazdneni = Math.min(komparatorVyprazdneni, System.nanoTime() - zacatek);
+
+            zacatek = System.nanoTime();
+            kontrola += vyprazdneni(new AbstrRadixHeap<>(Obec::getPocetOsob, horniMez), obce);
+            radixVyprazdneni = Math.min(radixVyprazdneni, System.nanoTime() - zacatek);
+
+            zacatek = System.nanoTime();
+            kontrola += monotonniPrubeh(new AbstrHeap<>(KOMPARATOR), obce);
+            komparatorPrubeh = Math.min(komparatorPrubeh, System.nanoTime() - zacatek);
+
+            zacatek = System.nanoTime();
+            kontrola += monotonniPrubeh(new AbstrRadixHeap<>(Obec::getPocetOsob, horniMez), obce);
+            radixPrubeh = Math.min(radixPrubeh, System.nanoTime() - zacatek);
+        }
+
+        System.out.println("Vložení a odebrání " + obce.length + " obcí:");
+        System.out.println("  AbstrHeap      " + komparatorVyprazdneni / 1_000_000 + " ms");
+        System.out.println("  AbstrRadixHeap " + radixVyprazdneni / 1_000_000 + " ms");
+        System.out.println("Monotónní průběh nad " + obce.length + " obcemi:");
+        System.out.println("  AbstrHeap      " + komparatorPrubeh / 1_000_000 + " ms");
+        System.out.println("  AbstrRadixHeap " + radixPrubeh / 1_000_000 + " ms");
+        System.out.println("(kontrolní součet " + kontrola + ")");
+    }
+
+    private static long vyprazdneni(IAbstrHeap<Obec> fronta, Obec[] obce) {
+        for (Obec obec : obce) {
+            fronta.vloz(obec);
+        }
+
+        long soucet = 0;
+        while (!fronta.jePrazdny()) {
+            soucet += fronta.odeberMax().getPocetOsob();
+        }
+        return soucet;
+    }
+
+    private static long monotonniPrubeh(IAbstrHeap<Obec> fronta, Obec[] obce) {
+        for (Obec obec : obce) {
+            fronta.vloz(obec);
+        }
+
+        Random nahoda = new Random(7);
+        long soucet = 0;
+        while (!fronta.jePrazdny()) {
+            Obec obec = fronta.odeberMax();
+            soucet += obec.getPocetOsob();
+            if (nahoda.nextBoolean()) {
+                int novyPocet = obec.getPocetOsob() - nahoda.nextInt(obec.getPocetOsob() / 2 + 1);
+                fronta.vloz(new Obec(obec.getCisloKraje(), obec.getNazevKraje(), obec.getPSC(), obec.getObec(),
+                        0, 0, novyPocet));
+            }
+        }
+        return soucet;
+    }
+
+    private static List<Obec> nacti(String soubor) throws IOException {
+        List<Obec> obce = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(soubor))) {
+            String radek;
+            while ((radek = br.readLine()) != null) {
+                String[] cast = radek.split(";");
+                obce.add(new Obec(Integer.parseInt(cast[0]), cast[1], Integer.parseInt(cast[2]), cast[3],
+                        Integer.parseInt(cast[4]), Integer.parseInt(cast[5]), Integer.parseInt(cast[6])));
+            }
+        }
+        return obce;
+    }
+
+    /**
+    * Vytvoří zadaný počet obcí jako kopie načtených obcí s počtem osob
+    * náhodně posunutým nejvýše o čtvrtinu.
+    */
+    private static Obec[] rozmnoz(List<Obec> vzor, int pocet) {
+        Random nahoda = new Random(42);
+        Obec[] obce = new Obec[pocet];
+        for (int i = 0; i < pocet; i++) {
+            Obec obec = vzor.get(i % vzor.size());
+            int odchylka = obec.getPocetOsob() / 4;
+            int pocetOsob = obec.getPocetOsob() - odchylka + nahoda.nextInt(2 * odchylka + 1);
+            obce[i] = new Obec(obec.getCisloKraje(), obec.getNazevKraje(), obec.getPSC(), obec.getObec() + " " + i,
+                    obec.getPocetMuzu(), obec.getPocetZen(), pocetOsob);
+        }
+        return obce;
+    }
+}
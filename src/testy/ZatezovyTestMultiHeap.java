@@ -0,0 +1,108 @@
+package testy;
+
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import prioritni_fronta.AbstrMultiHeap;
+
+/**
+ * Zátěžový test souběžné prioritní fronty AbstrMultiHeap. Několik vláken
+ * souběžně vkládá navzájem různá čísla a několik dalších je současně odebírá.
+ * Po doběhnutí všech vláken se ověří, že každé vložené číslo bylo odebráno
+ * právě jednou a že je fronta prázdná. Test se spustí v uvolněném i přísném
+ * režimu, při chybě skončí nenulovým návratovým kódem.
+ *
+ * Spuštění: java testy.ZatezovyTestMultiHeap [pocetPrvku] [pocetVlaken]
+ */
+
+public class ZatezovyTestMultiHeap {
+
+    public static void main(String[] args) throws InterruptedException {
+        int pocetPrvku = args.length > 0 ? Integer.parseInt(args[0]) : 400_000;
+        int pocetVlaken = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        boolean uspech = otestuj(pocetPrvku, pocetVlaken, false);
+        uspech &= otestuj(pocetPrvku, pocetVlaken, true);
+
+        if (!uspech) {
+            System.exit(1);
+        }
+    }
+
+    /**
+    * Spustí pocetVlaken vkládajících a stejný počet odebírajících vláken
+    * nad jednou frontou a ověří, že žádný prvek nebyl ztracen ani odebrán
+    * dvakrát.
+    *
+    * @param pocetPrvku Celkový počet vložených prvků
+    * @param pocetVlaken Počet vkládajících (a zároveň odebírajících) vláken
+    * @param prisny True pro přísný režim fronty
+    * @return True, pokud test prošel
+    */
+    private static boolean otestuj(int pocetPrvku, int pocetVlaken, boolean prisny) throws InterruptedException {
+        AbstrMultiHeap<Integer> fronta = new AbstrMultiHeap<>(Comparator.<Integer>naturalOrder(),
+                2 * Runtime.getRuntime().availableProcessors(), prisny);
+        AtomicIntegerArray odebrano = new AtomicIntegerArray(pocetPrvku);
+        AtomicInteger pocetOdebranych = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] vlakna = new Thread[2 * pocetVlaken];
+        for (int v = 0; v < pocetVlaken; v++) {
+            int prvni = v;
+            vlakna[v] = new Thread(() -> {
+                cekej(start);
+                for (int cislo = prvni; cislo < pocetPrvku; cislo += pocetVlaken) {
+                    fronta.vloz(cislo);
+                }
+            });
+            vlakna[pocetVlaken + v] = new Thread(() -> {
+                cekej(start);
+                while (pocetOdebranych.get() < pocetPrvku) {
+                    Integer cislo = fronta.odeberMax();
+                    if (cislo != null) {
+                        odebrano.incrementAndGet(cislo);
+                        pocetOdebranych.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        for (Thread vlakno : vlakna) {
+            vlakno.start();
+        }
+        long zacatek = System.nanoTime();
+        start.countDown();
+        for (Thread vlakno : vlakna) {
+            vlakno.join();
+        }
+        long trvaniMs = (System.nanoTime() - zacatek) / 1_000_000;
+
+        int chyby = 0;
+        for (int i = 0; i < pocetPrvku; i++) {
+            if (odebrano.get(i) != 1) {
+                if (chyby < 10) {
+                    System.out.println("Prvek " + i + " odebrán " + odebrano.get(i) + "x.");
+                }
+                chyby++;
+            }
+        }
+        if (!fronta.jePrazdny()) {
+            System.out.println("Fronta není po odebrání všech prvků prázdná (velikost " + fronta.getVelikost() + ").");
+            chyby++;
+        }
+
+        System.out.println((prisny ? "Přísný" : "Uvolněný") + " režim: " + pocetPrvku + " prvků, "
+                + pocetVlaken + "+" + pocetVlaken + " vláken, " + trvaniMs + " ms, "
+                + (chyby == 0 ? "OK" : "CHYBA (" + chyby + ")"));
+        return chyby == 0;
+    }
+
+    private static void cekej(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}